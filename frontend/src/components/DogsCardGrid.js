@@ -25,13 +25,22 @@ import dogService from '../services/dogService';
 const predictionColors = {
   'Yes': '#4caf50', // Green
   'Cautiously': '#ff9800', // Orange
-  'No': '#f44336' // Red
+  'No': '#f44336', // Red
+  'Pending': '#2196f3' // Blue
+};
+
+// Server-side sort for each option; weight lists the heaviest dogs first
+const sortParams = {
+  'name': 'name,asc',
+  'breed': 'breed,asc',
+  'weight': 'weight,desc'
 };
 
 const predictionIcons = {
   'Yes': '✅',
   'Cautiously': '⚠️',
-  'No': '⛔'
+  'No': '⛔',
+  'Pending': '⏳'
 };
 
 const DogsCardGrid = () => {
@@ -52,37 +61,9 @@ const DogsCardGrid = () => {
   const loadDogs = async () => {
     try {
       setLoading(true);
-      const response = await dogService.getAllDogs();
-      let filteredDogs = response.data.content;
-
-      // Apply search filter
-      if (searchTerm) {
-        filteredDogs = filteredDogs.filter(dog =>
-          dog.name.toLowerCase().includes(searchTerm.toLowerCase()) ||
-          dog.breed.toLowerCase().includes(searchTerm.toLowerCase())
-        );
-      }
-
-      // Apply prediction filter
-      if (predictionFilter !== 'All') {
-        filteredDogs = filteredDogs.filter(dog => dog.isSafeToPet === predictionFilter);
-      }
-
-      // Apply sorting
-      filteredDogs.sort((a, b) => {
-        switch (sortBy) {
-          case 'name':
-            return a.name.localeCompare(b.name);
-          case 'breed':
-            return a.breed.localeCompare(b.breed);
-          case 'weight':
-            return (b.weight || 0) - (a.weight || 0);
-          default:
-            return 0;
-        }
-      });
-
-      setDogs(filteredDogs);
+      // Search, prediction filter and sort are applied by the server
+      const response = await dogService.getDogCards(searchTerm.trim(), predictionFilter, sortParams[sortBy]);
+      setDogs(response.data.content);
     } catch (err) {
       setError('Failed to load dogs');
       console.error('Error loading dogs:', err);
@@ -254,7 +235,11 @@ const DogsCardGrid = () => {
 
                 {/* Safety Prediction Badge */}
                 <Box sx={{ mb: 2 }}>
-                  <Tooltip title={dog.safetyExplanation || 'No explanation available'}>
+                  <Tooltip title={dog.safetyExplanation
+                    ? (dog.safetyExplanation.length > 300
+                      ? `${dog.safetyExplanation.substring(0, 300)}...`
+                      : dog.safetyExplanation)
+                    : 'No explanation available'}>
                     {getPredictionBadge(dog.isSafeToPet)}
                   </Tooltip>
                 </Box>
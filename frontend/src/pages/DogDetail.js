@@ -26,14 +26,16 @@ const predictionColors = {
   'Yes': '#4caf50', // Green
   'Cautiously': '#ff9800', // Orange
   'No': '#f44336', // Red
-  'Error': '#757575' // Grey
+  'Error': '#757575', // Grey
+  'Pending': '#2196f3' // Blue
 };
 
 const predictionIcons = {
   'Yes': '✅',
   'Cautiously': '⚠️',
   'No': '⛔',
-  'Error': '❓'
+  'Error': '❓',
+  'Pending': '⏳'
 };
 
 const DogDetail = () => {
@@ -145,6 +147,9 @@ const DogDetail = () => {
       if (response.data) {
         setCurrentPrediction(response.data.isSafeToPet);
         setCurrentExplanation(response.data.safetyExplanation);
+        if (response.data.isSafeToPet === 'Pending') {
+          await streamPrediction();
+        }
       }
     } catch (err) {
       console.error('Error updating prediction:', err);
@@ -155,6 +160,29 @@ const DogDetail = () => {
     }
   };
 
+  // Shows the verdict as soon as the model produces it, then the explanation as it is written
+  const streamPrediction = async () => {
+    try {
+      setPredictionLoading(true);
+      setCurrentExplanation('');
+      await dogService.streamPrediction(id, {
+        onVerdict: (verdict) => {
+          setCurrentPrediction(verdict);
+          setPredictionLoading(false);
+        },
+        onExplanation: (text) => setCurrentExplanation((previous) => previous + text),
+        onDone: (prediction) => {
+          setCurrentPrediction(prediction.isSafeToPet);
+          setCurrentExplanation(prediction.safetyExplanation);
+        },
+      });
+    } catch (err) {
+      console.error('Error streaming prediction:', err);
+    } finally {
+      setPredictionLoading(false);
+    }
+  };
+
   useEffect(() => {
     if (!isNew) {
       loadDog();
@@ -170,6 +198,9 @@ const DogDetail = () => {
       setCurrentPrediction(response.data.isSafeToPet);
       setCurrentExplanation(response.data.safetyExplanation);
       setError('');
+      if (isAdmin && response.data.isSafeToPet === 'Pending') {
+        streamPrediction();
+      }
     } catch (err) {
       setError('Failed to load dog details');
       console.error('Error loading dog:', err);
@@ -7,9 +7,10 @@ const dogService = {
     });
   },
 
-  getAllDogs: () => {
-    return api.get('/dogs', {
-      params: { size: 1000 }
+  // Only the columns a card shows, with long text cut to previews; no total is counted
+  getDogCards: (search = '', prediction = 'All', sort = 'name', size = 1000) => {
+    return api.get('/dogs/cards', {
+      params: { search, prediction, sort, size }
     });
   },
   
@@ -31,6 +32,58 @@ const dogService = {
   
   getDogStats: () => {
     return api.get('/dogs/stats');
+  },
+
+  // Reads the server-sent prediction events with fetch, since EventSource cannot send the auth header
+  streamPrediction: async (id, { onVerdict, onExplanation, onDone }) => {
+    const response = await fetch(`${api.defaults.baseURL}/dogs/${id}/prediction`, {
+      headers: {
+        Accept: 'text/event-stream',
+        Authorization: `Bearer ${localStorage.getItem('token')}`,
+      },
+    });
+    if (!response.ok) {
+      throw new Error(`Prediction stream failed with status ${response.status}`);
+    }
+
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = '';
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) {
+        break;
+      }
+      buffer += decoder.decode(value, { stream: true });
+
+      let boundary;
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, boundary);
+        buffer = buffer.slice(boundary + 2);
+
+        let name = 'message';
+        const data = [];
+        block.split('\n').forEach((line) => {
+          if (line.startsWith('event:')) {
+            name = line.slice(6).trim();
+          } else if (line.startsWith('data:')) {
+            data.push(line.slice(5));
+          }
+        });
+        if (data.length === 0) {
+          continue;
+        }
+
+        const payload = JSON.parse(data.join('\n'));
+        if (name === 'verdict') {
+          onVerdict?.(payload.text);
+        } else if (name === 'explanation') {
+          onExplanation?.(payload.text);
+        } else if (name === 'done') {
+          onDone?.(payload);
+        }
+      }
+    }
   }
 };
 
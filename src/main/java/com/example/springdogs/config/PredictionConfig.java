@@ -0,0 +1,50 @@
+package com.example.springdogs.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PredictionConfig {
+
+    @Bean("predictionExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor predictionExecutor(
+            @Value("${app.prediction.async.workers:4}") int workers,
+            @Value("${app.prediction.async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("prediction-");
+        // A full queue rejects the task rather than run the OpenAI call on the request thread;
+        // the dog stays Pending and DogPredictionWorker's sweep schedules it once there is room
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * With {@code spring.threads.virtual.enabled} on Java 21+, every background prediction gets
+     * its own virtual thread instead of waiting for a pool thread, and the OpenAI rate limiter
+     * still decides how many calls are sent. See the write concurrency benchmark for the cost.
+     */
+    @Bean("predictionExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualPredictionExecutor(
+            @Value("${app.prediction.async.max-in-flight:1000}") int maxInFlight) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("prediction-");
+        executor.setVirtualThreads(true);
+        // Past the limit submitting blocks the caller, which on a virtual request thread is cheap
+        executor.setConcurrencyLimit(maxInFlight);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+}
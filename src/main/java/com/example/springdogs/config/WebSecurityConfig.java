@@ -3,6 +3,7 @@ package com.example.springdogs.config;
 import com.example.springdogs.security.CustomUserDetailsService;
 import com.example.springdogs.security.JwtAuthenticationEntryPoint;
 import com.example.springdogs.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -70,11 +71,16 @@ public class WebSecurityConfig {
             .sessionManagement(sessionManagement -> 
                 sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completion of an already-authorized streaming (SSE) response; the JWT filter
+                // does not run again on the async dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/dogs").permitAll()
                 .requestMatchers("/api/dogs/{id}").permitAll()
                 .requestMatchers("/api/dogs/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/favicon.ico").permitAll()
                 .requestMatchers("/manifest.json").permitAll()
                 .requestMatchers("/static/**").permitAll()
@@ -1,18 +1,38 @@
 package com.example.springdogs.controller;
 
+import com.example.springdogs.dto.DogCard;
 import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.dto.DogSlice;
+import com.example.springdogs.dto.DogVersion;
+import com.example.springdogs.dto.PredictionStreamEvent;
 import com.example.springdogs.model.Dog;
 import com.example.springdogs.repository.DogRepository;
+import com.example.springdogs.service.DogCache;
+import com.example.springdogs.service.DogCursor;
+import com.example.springdogs.service.DogDataGeneration;
+import com.example.springdogs.service.DogListCache;
 import com.example.springdogs.service.DogService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,20 +40,91 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class DogController {
 
+    private static final long PREDICTION_STREAM_TIMEOUT_MS = 120_000;
+    private static final int MAX_SCROLL_PAGE_SIZE = 100;
+
     @Autowired
     private DogService dogService;
 
+    @Autowired
+    private DogCache dogCache;
+
+    @Autowired
+    private DogListCache dogListCache;
+
+    @Autowired
+    private DogDataGeneration dogDataGeneration;
+
+    // Query parameters: search, prediction, breed, minAge, maxAge, minWeight, maxWeight.
+    // Listings are validated by the data generation: 304 before any query if nothing changed
     @GetMapping
-    public ResponseEntity<Page<DogDto>> getAllDogs(
-            @RequestParam(required = false) String search,
-            @RequestParam(required = false) String prediction,
-            Pageable pageable) {
-        Page<DogDto> dogs = dogService.findAllDogs(search, prediction, pageable);
+    public ResponseEntity<Page<DogDto>> getAllDogs(DogSearchCriteria criteria, Pageable pageable,
+                                                   ServletWebRequest request) {
+        if (listingNotModified(request)) {
+            return null;
+        }
+        Page<DogDto> dogs = dogService.findAllDogs(criteria, pageable);
         return ResponseEntity.ok(dogs);
     }
 
+    // Same as getAllDogs without the exact total, which costs a count over every match;
+    // withTotal=true adds an approximate one for unfiltered, prediction and breed listings
+    @GetMapping("/slice")
+    public ResponseEntity<DogSlice> getDogSlice(DogSearchCriteria criteria, Pageable pageable,
+                                                @RequestParam(defaultValue = "false") boolean withTotal,
+                                                ServletWebRequest request) {
+        // The total is recounted up to max-staleness after the write that moved the generation
+        // on, so a generation tag would pin a response holding the old total
+        if (!withTotal && listingNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(dogService.findDogSlice(criteria, pageable, withTotal));
+    }
+
+    // Slice of the card grid's columns only; temperament is cut to a preview
+    @GetMapping("/cards")
+    public ResponseEntity<Slice<DogCard>> getDogCards(DogSearchCriteria criteria, Pageable pageable,
+                                                      ServletWebRequest request) {
+        if (listingNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(dogService.findDogCards(criteria, pageable));
+    }
+
+    // Cursor pagination for infinite scroll: same filters, sort is one of id, name, breed, age;
+    // pass the previous page's nextCursor as cursor to continue in the same order
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollDogs(DogSearchCriteria criteria,
+                                        @RequestParam(defaultValue = "id") String sort,
+                                        @RequestParam(defaultValue = "asc") String direction,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size,
+                                        ServletWebRequest request) {
+        DogCursor position;
+        try {
+            position = cursor != null
+                    ? DogCursor.decode(cursor)
+                    : DogCursor.first(sort, direction.equalsIgnoreCase("desc"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (listingNotModified(request)) {
+            return null;
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_PAGE_SIZE));
+        return ResponseEntity.ok(dogService.scrollDogs(criteria, position, pageSize));
+    }
+
+    // Validated by the dog's update time, which is looked up without loading the dog
     @GetMapping("/{id}")
-    public ResponseEntity<DogDto> getDogById(@PathVariable Long id) {
+    public ResponseEntity<DogDto> getDogById(@PathVariable Long id, ServletWebRequest request) {
+        Optional<DogVersion> version = dogService.findDogVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (notModified(request, version.get().etag(), version.get().lastModifiedMillis())) {
+            return null;
+        }
         Optional<DogDto> dog = dogService.findDogById(id);
         return dog.map(ResponseEntity::ok)
                  .orElse(ResponseEntity.notFound().build());
@@ -43,17 +134,29 @@ public class DogController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<DogDto> createDog(@Valid @RequestBody DogDto dogDto) {
         DogDto createdDog = dogService.saveDog(dogDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdDog);
+        // 202 tells the client the prediction is still being computed in the background
+        HttpStatus status = dogService.isPredictionPending(createdDog) ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(createdDog);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<DogDto> updateDog(@PathVariable Long id, @Valid @RequestBody DogDto dogDto) {
         Optional<DogDto> updatedDog = dogService.updateDog(id, dogDto);
-        return updatedDog.map(ResponseEntity::ok)
+        return updatedDog.map(dog -> dogService.isPredictionPending(dog)
+                                ? ResponseEntity.status(HttpStatus.ACCEPTED).body(dog)
+                                : ResponseEntity.ok(dog))
                         .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(value = "/{id}/prediction", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SseEmitter> streamPrediction(@PathVariable Long id) {
+        return dogService.streamPrediction(id)
+                .map(events -> ResponseEntity.ok(toEmitter(events)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteDog(@PathVariable Long id) {
@@ -69,5 +172,46 @@ public class DogController {
     public ResponseEntity<java.util.Map<String, Long>> getDogStats() {
         return ResponseEntity.ok(dogService.getDogStats());
     }
-}
 
+    @GetMapping("/stats/cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDogCacheStats() {
+        return ResponseEntity.ok(dogCache.getStats());
+    }
+
+    @GetMapping("/stats/list-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDogListCacheStats() {
+        return ResponseEntity.ok(dogListCache.getStats());
+    }
+
+    private boolean listingNotModified(ServletWebRequest request) {
+        DogDataGeneration.Version version = dogDataGeneration.version();
+        return notModified(request, version.etag(), version.changedAtMillis());
+    }
+
+    // Sets ETag and Last-Modified, and answers 304 when the client's copy is current. A null
+    // return from the handler then leaves that response as is, with no body serialized.
+    private static boolean notModified(ServletWebRequest request, String etag, long lastModifiedMillis) {
+        // Let clients keep the response but revalidate it on every use; without this Spring
+        // Security marks every response no-store and browsers never send If-None-Match
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified(etag, lastModifiedMillis);
+    }
+
+    private SseEmitter toEmitter(Flux<PredictionStreamEvent> events) {
+        SseEmitter emitter = new SseEmitter(PREDICTION_STREAM_TIMEOUT_MS);
+        Disposable subscription = events.subscribe(event -> {
+            try {
+                // JSON payloads keep the leading spaces of explanation fragments intact
+                Object data = event.isDone() ? event.prediction() : Map.of("text", String.valueOf(event.text()));
+                emitter.send(SseEmitter.event().name(event.name()).data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+        return emitter;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.springdogs.controller;
+
+import com.example.springdogs.prediction.OpenAiCircuitBreaker;
+import com.example.springdogs.prediction.OpenAiRateLimiter;
+import com.example.springdogs.prediction.PredictionCache;
+import com.example.springdogs.prediction.PredictionHedger;
+import com.example.springdogs.prediction.RulePrescreen;
+import com.example.springdogs.service.BulkPredictionService;
+import com.example.springdogs.service.ChatGptService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/predictions")
+@CrossOrigin(origins = "http://localhost:3000")
+@PreAuthorize("hasRole('ADMIN')")
+public class PredictionAdminController {
+
+    @Autowired
+    private PredictionCache predictionCache;
+
+    @Autowired
+    private ChatGptService chatGptService;
+
+    @Autowired
+    private OpenAiRateLimiter openAiRateLimiter;
+
+    @Autowired
+    private OpenAiCircuitBreaker openAiCircuitBreaker;
+
+    @Autowired
+    private RulePrescreen rulePrescreen;
+
+    @Autowired
+    private PredictionHedger predictionHedger;
+
+    @Autowired
+    private BulkPredictionService bulkPredictionService;
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(predictionCache.getStats());
+    }
+
+    @GetMapping("/requests")
+    public ResponseEntity<Map<String, Long>> getRequestStats() {
+        return ResponseEntity.ok(chatGptService.getRequestStats());
+    }
+
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(openAiRateLimiter.getStats());
+    }
+
+    @GetMapping("/circuit")
+    public ResponseEntity<Map<String, Object>> getCircuitStats() {
+        return ResponseEntity.ok(openAiCircuitBreaker.getStats());
+    }
+
+    @PostMapping("/circuit/reset")
+    public ResponseEntity<Map<String, Object>> resetCircuit() {
+        openAiCircuitBreaker.reset();
+        return ResponseEntity.ok(openAiCircuitBreaker.getStats());
+    }
+
+    @GetMapping("/prescreen")
+    public ResponseEntity<Map<String, Object>> getPrescreenStats() {
+        return ResponseEntity.ok(rulePrescreen.getStats());
+    }
+
+    @GetMapping("/hedge")
+    public ResponseEntity<Map<String, Object>> getHedgeStats() {
+        return ResponseEntity.ok(predictionHedger.getStats());
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<Map<String, Object>> startJob(@RequestParam(required = false) Integer parallelism,
+                                                        @RequestParam(required = false) Integer requestsPerMinute) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkPredictionService.start(parallelism, requestsPerMinute));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/jobs/current")
+    public ResponseEntity<Map<String, Object>> getJobProgress() {
+        return bulkPredictionService.getProgress()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/jobs/current/pause")
+    public ResponseEntity<Map<String, Object>> pauseJob() {
+        return bulkPredictionService.pause()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/jobs/current/resume")
+    public ResponseEntity<Map<String, Object>> resumeJob() {
+        return bulkPredictionService.resume()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/jobs/current/cancel")
+    public ResponseEntity<Map<String, Object>> cancelJob() {
+        return bulkPredictionService.cancel()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.springdogs.dto;
 
+import com.example.springdogs.model.Dog;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,9 +10,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatGptDogDto {
+    // Not sent to OpenAI: name and color don't affect safety, so cached and stored predictions
+    // are shared between dogs, and kept across edits, that differ only in them
+    @JsonIgnore
     private String name;
     private String breed;
     private Integer age;
+    @JsonIgnore
     private String color;
     private Double weight;
     private String temperament;
@@ -26,4 +32,16 @@ public class ChatGptDogDto {
         dto.setTemperament(dogDto.getTemperament());
         return dto;
     }
+
+    // Static method to create from a persisted Dog
+    public static ChatGptDogDto from(Dog dog) {
+        ChatGptDogDto dto = new ChatGptDogDto();
+        dto.setName(dog.getName());
+        dto.setBreed(dog.getBreed());
+        dto.setAge(dog.getAge());
+        dto.setColor(dog.getColor());
+        dto.setWeight(dog.getWeight());
+        dto.setTemperament(dog.getTemperament());
+        return dto;
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.springdogs.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,6 +16,10 @@ public class ChatGptRequest {
     private double temperature;
     private int max_tokens;
     
+    // Only sent when streaming; the provider then answers with server-sent events
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean stream;
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,16 @@
+package com.example.springdogs.dto;
+
+import com.example.springdogs.model.SafetyLevel;
+
+/**
+ * The columns the dog card grid shows, selected directly into this record instead of loading
+ * {@code Dog} entities. The temperament and the safety explanation (the badge's tooltip) are cut
+ * to preview lengths in the query, one more than the grid displays so it can still tell when to
+ * add an ellipsis.
+ */
+public record DogCard(Long id, String name, String breed, Integer age, Double weight,
+                      String temperament, SafetyLevel isSafeToPet, String safetyExplanation) {
+
+    public static final int TEMPERAMENT_PREVIEW_LENGTH = 61;
+    public static final int EXPLANATION_PREVIEW_LENGTH = 301;
+}
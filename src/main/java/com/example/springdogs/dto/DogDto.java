@@ -1,6 +1,7 @@
 package com.example.springdogs.dto;
 
 import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,7 +21,7 @@ public class DogDto {
     private String color;
     private Double weight;
     private String temperament;
-    private String isSafeToPet;
+    private SafetyLevel isSafeToPet;
     private String safetyExplanation;
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
@@ -0,0 +1,20 @@
+package com.example.springdogs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated dog listing. Pass {@code nextCursor} back as {@code cursor}
+ * to get the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogScrollPage {
+
+    private List<DogDto> content;
+    private String nextCursor;
+}
@@ -0,0 +1,52 @@
+package com.example.springdogs.dto;
+
+import com.example.springdogs.model.SafetyLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters for listing dogs, bound from the query string of {@code GET /api/dogs}. Every field
+ * is optional and the ones that are set are combined with AND.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogSearchCriteria {
+
+    private String search;
+    // Label as sent by the UI; blank or "All" means any prediction
+    private String prediction;
+    // Exact breed name
+    private String breed;
+    private Integer minAge;
+    private Integer maxAge;
+    private Double minWeight;
+    private Double maxWeight;
+
+    public static DogSearchCriteria of(String search, String prediction) {
+        DogSearchCriteria criteria = new DogSearchCriteria();
+        criteria.setSearch(search);
+        criteria.setPrediction(prediction);
+        return criteria;
+    }
+
+    public boolean hasSearch() {
+        return search != null && !search.isBlank();
+    }
+
+    public boolean hasBreed() {
+        return breed != null && !breed.isBlank();
+    }
+
+    /**
+     * @return the prediction filter, or null for any prediction
+     * @throws IllegalArgumentException if the label is not a known prediction
+     */
+    public SafetyLevel predictionLevel() {
+        if (prediction == null || prediction.isBlank() || prediction.trim().equals("All")) {
+            return null;
+        }
+        return SafetyLevel.fromLabel(prediction);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.springdogs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a dog listing without an exact total. {@code approximateTotal} is only set when
+ * requested and the filters allow it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DogSlice {
+
+    private List<DogDto> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    private Long approximateTotal;
+}
@@ -0,0 +1,35 @@
+package com.example.springdogs.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * A dog's id and last-update time, enough to validate a cached copy of it without loading it.
+ */
+public record DogVersion(Long id, LocalDateTime updatedAt) {
+
+    public static DogVersion of(DogDto dog) {
+        return new DogVersion(dog.getId(), dog.getUpdatedAt());
+    }
+
+    /**
+     * Strong entity tag, or null for a dog that was never saved through JPA and so has no
+     * update time.
+     */
+    public String etag() {
+        if (updatedAt == null) {
+            return null;
+        }
+        // Full timestamp precision, so two updates within one second still differ
+        return "\"dog-" + id + "-" + updatedAt.toEpochSecond(ZoneOffset.UTC) + "." + updatedAt.getNano() + "\"";
+    }
+
+    /**
+     * @return the update time in epoch milliseconds, or -1 if unknown
+     */
+    public long lastModifiedMillis() {
+        // Update timestamps are stored in the server's local time
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
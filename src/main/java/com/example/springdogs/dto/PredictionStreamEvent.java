@@ -0,0 +1,30 @@
+package com.example.springdogs.dto;
+
+import com.example.springdogs.model.SafetyLevel;
+
+/**
+ * One server-sent event of a streamed prediction: the verdict as soon as it is known, then
+ * pieces of the explanation, then the complete prediction.
+ */
+public record PredictionStreamEvent(String name, String text, SafetyPrediction prediction) {
+
+    public static final String VERDICT = "verdict";
+    public static final String EXPLANATION = "explanation";
+    public static final String DONE = "done";
+
+    public static PredictionStreamEvent verdict(SafetyLevel verdict) {
+        return new PredictionStreamEvent(VERDICT, verdict.getLabel(), null);
+    }
+
+    public static PredictionStreamEvent explanation(String text) {
+        return new PredictionStreamEvent(EXPLANATION, text, null);
+    }
+
+    public static PredictionStreamEvent done(SafetyPrediction prediction) {
+        return new PredictionStreamEvent(DONE, null, prediction);
+    }
+
+    public boolean isDone() {
+        return DONE.equals(name);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.springdogs.dto;
 
+import com.example.springdogs.model.SafetyLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class SafetyPrediction {
-    private String isSafeToPet; // "Yes", "No", "Cautiously", "Error"
+
+    private SafetyLevel isSafeToPet;
     private String safetyExplanation;
 }
@@ -12,7 +12,16 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "dogs")
+@Table(name = "dogs", indexes = {
+    // Listing filters combine equality on prediction and breed with age and weight ranges;
+    // equality columns lead so any combination seeks on its prefix and ranges on the rest
+    @Index(name = "idx_dogs_prediction_age", columnList = "is_safe_to_pet, age"),
+    @Index(name = "idx_dogs_breed_prediction_age", columnList = "breed, is_safe_to_pet, age"),
+    @Index(name = "idx_dogs_age", columnList = "age"),
+    // Keyset pagination by name seeks here; id is the tie-breaker
+    @Index(name = "idx_dogs_name_id", columnList = "name, id"),
+    @Index(name = "idx_dogs_weight", columnList = "weight")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,12 +52,20 @@ public class Dog {
     @Column(length = 500)
     private String temperament;
     
-    @Column
-    private String isSafeToPet; // Yes, No, Cautiously, Error
+    @Column(name = "is_safe_to_pet")
+    private SafetyLevel isSafeToPet;
     
     @Column(length = 1000)
     private String safetyExplanation;
     
+    // PredictionKey (hex) of the fields the stored prediction was made from, and the prompt/model
+    // version that made it; edits that leave both unchanged keep the prediction
+    @Column(length = 32)
+    private String predictionFingerprint;
+    
+    @Column(length = 100)
+    private String predictionVersion;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
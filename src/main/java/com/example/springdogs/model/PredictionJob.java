@@ -0,0 +1,66 @@
+package com.example.springdogs.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk re-prediction run. {@code lastDogId} is the checkpoint: every dog with a
+ * lower or equal id has been re-scored, so a paused or interrupted job resumes after it.
+ */
+@Entity
+@Table(name = "prediction_jobs")
+@Data
+@NoArgsConstructor
+public class PredictionJob {
+
+    public enum Status { RUNNING, PAUSED, COMPLETED, CANCELLED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private Long lastDogId = 0L;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long failed;
+
+    // Dogs in the table when the job started; new dogs get predicted on save anyway
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private int parallelism;
+
+    @Column(nullable = false)
+    private int requestsPerMinute;
+
+    @Column(nullable = false, length = 100)
+    private String predictionVersion;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
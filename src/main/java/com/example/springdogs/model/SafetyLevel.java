@@ -0,0 +1,110 @@
+package com.example.springdogs.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Petting-safety verdict. Stored as a stable small-integer {@link #getCode() code} (see
+ * {@link SafetyLevelConverter}) and written to JSON as the label clients have always seen.
+ */
+public enum SafetyLevel {
+
+    YES(1, "Yes"),
+    NO(2, "No"),
+    CAUTIOUSLY(3, "Cautiously"),
+    ERROR(4, "Error"),
+    // Placeholder stored while an asynchronous prediction is outstanding
+    PENDING(5, "Pending");
+
+    // Verdict words the model may answer with, and the level each one means
+    private static final String[] VERDICT_WORDS = {"yes", "y", "no", "n", "cautiously", "caution", "error"};
+    private static final SafetyLevel[] VERDICT_LEVELS = {YES, YES, NO, NO, CAUTIOUSLY, CAUTIOUSLY, ERROR};
+
+    private static final SafetyLevel[] BY_CODE = new SafetyLevel[values().length + 1];
+
+    static {
+        for (SafetyLevel level : values()) {
+            BY_CODE[level.code] = level;
+        }
+    }
+
+    private final short code;
+    private final String label;
+
+    SafetyLevel(int code, String label) {
+        this.code = (short) code;
+        this.label = label;
+    }
+
+    public short getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    public static SafetyLevel fromCode(short code) {
+        if (code < 1 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown safety level code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Accepts a label or constant name in any case; blank means no prediction.
+     *
+     * @throws IllegalArgumentException for any other value
+     */
+    @JsonCreator
+    public static SafetyLevel fromLabel(String label) {
+        if (label == null || label.isBlank()) {
+            return null;
+        }
+        String trimmed = label.trim();
+        for (SafetyLevel level : values()) {
+            if (level.label.equalsIgnoreCase(trimmed)) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("Unknown safety level: " + label);
+    }
+
+    /**
+     * Parses the verdict word of a model answer (YES, y, caution, ...) from
+     * {@code text[start, end)}, ignoring surrounding whitespace and case, without allocating.
+     *
+     * @return the verdict, or null if the text is not one
+     */
+    public static SafetyLevel parseVerdict(CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        for (int w = 0; w < VERDICT_WORDS.length; w++) {
+            if (equalsIgnoreCase(text, start, end, VERDICT_WORDS[w])) {
+                return VERDICT_LEVELS[w];
+            }
+        }
+        return null;
+    }
+
+    public static SafetyLevel parseVerdict(CharSequence text) {
+        return parseVerdict(text, 0, text.length());
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, int start, int end, String lowerCaseWord) {
+        if (end - start != lowerCaseWord.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseWord.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != lowerCaseWord.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
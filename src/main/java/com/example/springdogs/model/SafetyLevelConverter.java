@@ -0,0 +1,22 @@
+package com.example.springdogs.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link SafetyLevel} as its SMALLINT code rather than a VARCHAR, so the column and its
+ * index stay compact and renaming a label never rewrites rows.
+ */
+@Converter(autoApply = true)
+public class SafetyLevelConverter implements AttributeConverter<SafetyLevel, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(SafetyLevel level) {
+        return level == null ? null : level.getCode();
+    }
+
+    @Override
+    public SafetyLevel convertToEntityAttribute(Short code) {
+        return code == null ? null : SafetyLevel.fromCode(code);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.springdogs.prediction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Multi-phrase matcher compiled into a dense Aho-Corasick automaton. Text and phrases are
+ * reduced to lowercase letters, digits and single spaces, and both are padded with a space,
+ * so phrases only match on whole words ("bite" does not match "bitey"). Matching a text is a
+ * single pass with one table lookup per character and no allocation.
+ */
+public final class AhoCorasickMatcher {
+
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * @param phraseId index of the phrase in the list given to the constructor
+         * @param start    start of the match in the normalized text, including the leading space
+         * @param end      end (exclusive) of the match in the normalized text
+         */
+        void onMatch(int phraseId, int start, int end);
+    }
+
+    private static final int ALPHABET = 37;
+    private static final int SPACE = 36;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] phraseLengths;
+
+    public AhoCorasickMatcher(List<String> phrases) {
+        List<int[]> gotos = new ArrayList<>();
+        List<int[]> outs = new ArrayList<>();
+        gotos.add(newState());
+        outs.add(NO_OUTPUT);
+        phraseLengths = new int[phrases.size()];
+
+        // Trie of the padded, normalized phrases
+        for (int id = 0; id < phrases.size(); id++) {
+            String phrase = normalize(phrases.get(id));
+            if (phrase.isBlank()) {
+                throw new IllegalArgumentException("Blank phrase at index " + id);
+            }
+            phraseLengths[id] = phrase.length();
+            int state = 0;
+            for (int i = 0; i < phrase.length(); i++) {
+                int symbol = symbol(phrase.charAt(i));
+                if (gotos.get(state)[symbol] < 0) {
+                    gotos.get(state)[symbol] = gotos.size();
+                    gotos.add(newState());
+                    outs.add(NO_OUTPUT);
+                }
+                state = gotos.get(state)[symbol];
+            }
+            outs.set(state, append(outs.get(state), id));
+        }
+
+        // Breadth-first failure links, folded straight into a complete transition table
+        int[] fail = new int[gotos.size()];
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = gotos.get(0);
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            if (root[symbol] < 0) {
+                root[symbol] = 0;
+            } else {
+                fail[root[symbol]] = 0;
+                queue.add(root[symbol]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int[] row = gotos.get(state);
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = row[symbol];
+                int fallback = gotos.get(fail[state])[symbol];
+                if (child < 0) {
+                    row[symbol] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    outs.set(child, merge(outs.get(child), outs.get(fallback)));
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = gotos.toArray(new int[0][]);
+        this.outputs = outs.toArray(new int[0][]);
+    }
+
+    /**
+     * Reports every phrase occurrence in {@code normalizedText}, which must come from
+     * {@link #normalize(CharSequence)}.
+     */
+    public void match(String normalizedText, MatchHandler handler) {
+        int state = 0;
+        for (int i = 0; i < normalizedText.length(); i++) {
+            state = transitions[state][symbol(normalizedText.charAt(i))];
+            for (int id : outputs[state]) {
+                handler.onMatch(id, i + 1 - phraseLengths[id], i + 1);
+            }
+        }
+    }
+
+    public int stateCount() {
+        return transitions.length;
+    }
+
+    /**
+     * Lowercases letters and digits, turns every run of other characters into one space and
+     * pads the result with a space on both sides.
+     */
+    public static String normalize(CharSequence text) {
+        StringBuilder normalized = new StringBuilder(text.length() + 2).append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                normalized.append(c);
+            } else if (normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        if (normalized.charAt(normalized.length() - 1) != ' ') {
+            normalized.append(' ');
+        }
+        return normalized.toString();
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return SPACE;
+    }
+
+    private static int[] newState() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] append(int[] ids, int id) {
+        int[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        int[] result = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, result, own.length, inherited.length);
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the answer to a {@link PredictionPrompts#batch batched prompt}. The expected form is
+ * one {@code <number>|<WORD>|<explanation>} line per dog; common variations such as
+ * {@code 2. NO - explanation} are tolerated. Lines that cannot be attributed to exactly one
+ * dog with a valid verdict are dropped so the caller can fall back to a single-dog request.
+ */
+public final class BatchPredictionParser {
+
+    private static final Pattern LINE = Pattern.compile(
+        "^\\s*(?:dog\\s*)?#?(\\d{1,4})\\s*[|.:)\\-]\\s*\\**([A-Za-z]+)\\**\\s*(?:[|:\\-\u2013]\\s*)?(.*)$",
+        Pattern.CASE_INSENSITIVE);
+
+    private BatchPredictionParser() {
+    }
+
+    /**
+     * @return predictions by 1-based dog number; dogs missing from the map were not answered
+     * in a usable form
+     */
+    public static Map<Integer, SafetyPrediction> parse(String content, int dogCount) {
+        Map<Integer, SafetyPrediction> predictions = new HashMap<>();
+        if (content == null) {
+            return predictions;
+        }
+
+        Map<Integer, Integer> occurrences = new HashMap<>();
+        for (String line : content.split("\\r?\\n")) {
+            Matcher matcher = LINE.matcher(line);
+            if (!matcher.matches()) {
+                continue;
+            }
+            int number = Integer.parseInt(matcher.group(1));
+            SafetyLevel prediction = SafetyLevel.parseVerdict(line, matcher.start(2), matcher.end(2));
+            if (number < 1 || number > dogCount || prediction == null) {
+                continue;
+            }
+            String explanation = matcher.group(3).trim();
+            predictions.put(number, new SafetyPrediction(prediction,
+                explanation.isEmpty() ? "No explanation provided" : explanation));
+            occurrences.merge(number, 1, Integer::sum);
+        }
+
+        // A dog answered twice is ambiguous; let it be re-asked on its own
+        occurrences.forEach((number, count) -> {
+            if (count > 1) {
+                predictions.remove(number);
+            }
+        });
+        return predictions;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.springdogs.prediction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker around OpenAI calls. It opens when the failure rate over the
+ * last {@code windowSize} calls reaches the threshold, rejects calls while open, and after
+ * {@code openDuration} lets a few probe calls through (half-open): if they all succeed the
+ * circuit closes, any failure opens it again.
+ */
+@Component
+public class OpenAiCircuitBreaker implements MeterBinder {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final LongAdder rejectedCalls = new LongAdder();
+    private final LongAdder timesOpened = new LongAdder();
+
+    public OpenAiCircuitBreaker() {
+        this(20, 5, 0.5, Duration.ofSeconds(30), 2, System::nanoTime);
+    }
+
+    @Autowired
+    public OpenAiCircuitBreaker(@Value("${app.prediction.circuit-breaker.window-size:20}") int windowSize,
+                                @Value("${app.prediction.circuit-breaker.minimum-calls:5}") int minimumCalls,
+                                @Value("${app.prediction.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                @Value("${app.prediction.circuit-breaker.open-duration:30s}") Duration openDuration,
+                                @Value("${app.prediction.circuit-breaker.half-open-probes:2}") int halfOpenProbes) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenProbes, System::nanoTime);
+    }
+
+    OpenAiCircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                         Duration openDuration, int halfOpenProbes, LongSupplier clock) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    /**
+     * @return {@code true} if the call may proceed; the caller must then report the outcome
+     * through {@link #onSuccess()} or {@link #onFailure()}
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+                state = State.HALF_OPEN;
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN && probesStarted < halfOpenProbes) {
+                probesStarted++;
+                return true;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            rejectedCalls.increment();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                if (++probesSucceeded >= halfOpenProbes) {
+                    close();
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= minimumCalls && failureRate() >= failureRateThreshold) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands back a permission whose call was abandoned before it had an outcome, so that a
+     * half-open probe slot is not lost.
+     */
+    public void releasePermission() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+                probesStarted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the circuit closed and forgets the recorded outcomes.
+     */
+    public void reset() {
+        lock.lock();
+        try {
+            close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("state", state);
+            stats.put("failureRate", failureRate());
+            stats.put("recordedCalls", recorded);
+            stats.put("timesOpened", timesOpened.sum());
+            stats.put("rejectedCalls", rejectedCalls.sum());
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("prediction.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .register(registry);
+        FunctionCounter.builder("prediction.circuit.rejected", rejectedCalls, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("prediction.circuit.opened", timesOpened, LongAdder::sum)
+                .register(registry);
+    }
+
+    // Must be called with the lock held
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % windowSize;
+    }
+
+    private double failureRate() {
+        return recorded == 0 ? 0.0 : (double) failures / recorded;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+        timesOpened.increment();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        Arrays.fill(outcomes, false);
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptRequest;
+import com.example.springdogs.dto.ChatGptResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Thin blocking wrapper around the OpenAI chat completions endpoint. Calls go through the
+ * {@link OpenAiRateLimiter}; 429 and 5xx responses are retried with jittered exponential
+ * backoff (never sooner than the provider's {@code Retry-After}) until the attempt limit or
+ * the overall retry deadline is reached.
+ */
+@Component
+public class OpenAiClient {
+
+    public static final String DEFAULT_BASE_URL = "https://api.openai.com/v1";
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
+    private static final String MODEL = "gpt-3.5-turbo";
+    private static final Duration BASE_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(20);
+    private static final String STREAM_DONE = "[DONE]";
+    private static final ObjectMapper CHUNK_READER = new ObjectMapper();
+
+    private final WebClient webClient;
+    private final String completionsUrl;
+    private final OpenAiRateLimiter rateLimiter;
+    private final int maxAttempts;
+    private final Duration maxRetryWait;
+    private final Duration timeout;
+
+    public OpenAiClient(String apiKey) {
+        this(apiKey, DEFAULT_BASE_URL);
+    }
+
+    public OpenAiClient(String apiKey, String baseUrl) {
+        this(apiKey, baseUrl, new OpenAiRateLimiter(), 5, Duration.ofSeconds(60), Duration.ofSeconds(30));
+    }
+
+    @Autowired
+    public OpenAiClient(@Value("${app.openaiApiKey}") String apiKey,
+                        @Value("${app.openai.base-url:" + DEFAULT_BASE_URL + "}") String baseUrl,
+                        OpenAiRateLimiter rateLimiter,
+                        @Value("${app.openai.retry.max-attempts:5}") int maxAttempts,
+                        @Value("${app.openai.retry.max-wait:60s}") Duration maxRetryWait,
+                        @Value("${app.openai.timeout:30s}") Duration timeout) {
+        this.webClient = WebClient.builder()
+                .defaultHeader("Authorization", "Bearer " + apiKey)
+                .defaultHeader("Content-Type", "application/json")
+                .build();
+        // Any OpenAI-compatible endpoint, e.g. the stub server used for load tests
+        this.completionsUrl = stripTrailingSlash(baseUrl) + CHAT_COMPLETIONS_PATH;
+        this.rateLimiter = rateLimiter;
+        this.maxAttempts = maxAttempts;
+        this.maxRetryWait = maxRetryWait;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Sends a single user message and returns the content of the first choice, or
+     * {@code null} if the API answered without any choices.
+     *
+     * @throws WebClientResponseException if the API still fails after all retries
+     * @throws OpenAiThrottledException if the rate limiter had no capacity before the retry deadline
+     */
+    public String complete(String prompt, int maxTokens) {
+        ChatGptRequest request = newRequest(prompt, maxTokens);
+        int estimatedTokens = estimateTokens(prompt, maxTokens);
+        long deadline = System.nanoTime() + maxRetryWait.toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            acquire(estimatedTokens, deadline);
+            Duration backoff;
+            try {
+                ResponseEntity<ChatGptResponse> response = send(request);
+                ChatGptResponse body = response.getBody();
+                int actualTokens = body != null && body.getUsage() != null ? body.getUsage().getTotal_tokens() : 0;
+                rateLimiter.onSuccess(response.getHeaders(), estimatedTokens, actualTokens);
+                return firstChoice(body);
+            } catch (WebClientResponseException e) {
+                Duration retryAfter = e.getStatusCode().value() == 429
+                        ? rateLimiter.onRateLimited(e.getHeaders())
+                        : Duration.ZERO;
+                backoff = backoff(attempt, retryAfter);
+                if (!isRetryable(e) || attempt >= maxAttempts || System.nanoTime() + backoff.toNanos() - deadline > 0) {
+                    throw e;
+                }
+            } finally {
+                rateLimiter.release();
+            }
+            sleep(backoff);
+        }
+    }
+
+    /**
+     * Streams the completion for a single user message, emitting content deltas as the
+     * provider sends them. Capacity is acquired from the rate limiter on subscription (off the
+     * caller's thread); the request is not retried because part of the answer may already have
+     * been relayed. {@code timeout} applies to the gap between consecutive chunks.
+     */
+    public Flux<String> stream(String prompt, int maxTokens) {
+        ChatGptRequest request = newRequest(prompt, maxTokens);
+        request.setStream(true);
+        int estimatedTokens = estimateTokens(prompt, maxTokens);
+
+        return Flux.defer(() -> {
+            acquire(estimatedTokens, System.nanoTime() + maxRetryWait.toNanos());
+            return webClient.post()
+                    .uri(completionsUrl)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(request)
+                    .retrieve()
+                    .toEntityFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                    .flatMapMany(response -> response.getBody()
+                            .timeout(timeout)
+                            .takeWhile(event -> !STREAM_DONE.equals(event.data()))
+                            .mapNotNull(event -> deltaContent(event.data()))
+                            .doOnComplete(() -> rateLimiter.onSuccess(response.getHeaders(), estimatedTokens, 0)))
+                    .doOnError(WebClientResponseException.class, e -> {
+                        if (e.getStatusCode().value() == 429) {
+                            rateLimiter.onRateLimited(e.getHeaders());
+                        }
+                    })
+                    .doFinally(signal -> rateLimiter.release());
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Content of one streamed chat.completion.chunk, or null for chunks without text
+    static String deltaContent(String chunkJson) {
+        if (chunkJson == null || chunkJson.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode content = CHUNK_READER.readTree(chunkJson).path("choices").path(0).path("delta").path("content");
+            return content.isTextual() ? content.asText() : null;
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static ChatGptRequest newRequest(String prompt, int maxTokens) {
+        ChatGptRequest request = new ChatGptRequest();
+        request.setModel(MODEL);
+        request.setMessages(List.of(new ChatGptRequest.Message("user", prompt)));
+        request.setTemperature(0.1);
+        request.setMax_tokens(maxTokens);
+        return request;
+    }
+
+    private static int estimateTokens(String prompt, int maxTokens) {
+        // ~4 characters per token is OpenAI's rule of thumb for English text
+        return prompt.length() / 4 + maxTokens;
+    }
+
+    private ResponseEntity<ChatGptResponse> send(ChatGptRequest request) {
+        return webClient.post()
+                .uri(completionsUrl)
+                .bodyValue(request)
+                .retrieve()
+                .toEntity(ChatGptResponse.class)
+                .timeout(timeout)
+                .block();
+    }
+
+    private void acquire(int estimatedTokens, long deadline) {
+        try {
+            rateLimiter.acquire(estimatedTokens, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenAiThrottledException("Interrupted while waiting for OpenAI capacity");
+        }
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private static String firstChoice(ChatGptResponse response) {
+        if (response == null || response.getChoices() == null ||
+            response.getChoices().length == 0) {
+            return null;
+        }
+        return response.getChoices()[0].getMessage().getContent();
+    }
+
+    private static boolean isRetryable(WebClientResponseException e) {
+        int status = e.getStatusCode().value();
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Full-jitter exponential backoff; when the provider gave a Retry-After we wait at least
+     * that long and only jitter on top so queued callers do not all retry at the same instant.
+     */
+    static Duration backoff(int attempt, Duration retryAfter) {
+        long ceiling = Math.min(MAX_BACKOFF.toMillis(), BASE_BACKOFF.toMillis() << Math.min(attempt - 1, 16));
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (retryAfter.isZero()) {
+            return Duration.ofMillis(random.nextLong(ceiling + 1));
+        }
+        return retryAfter.plusMillis(random.nextLong(BASE_BACKOFF.toMillis() + 1));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OpenAiThrottledException("Interrupted while backing off from OpenAI");
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.springdogs.prediction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side limiter for OpenAI calls. It keeps requests and tokens within per-minute budgets,
+ * pauses everyone when the provider signals exhaustion ({@code Retry-After} or the
+ * {@code x-ratelimit-*} headers), and adapts the number of concurrent requests with AIMD:
+ * each success widens the window by roughly one request per round trip, each 429 halves it.
+ */
+@Component
+public class OpenAiRateLimiter implements MeterBinder {
+
+    private static final Pattern OPENAI_DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final double minConcurrency;
+    private final double maxConcurrency;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition capacityChanged = lock.newCondition();
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private volatile double concurrencyLimit;
+    private volatile int inFlight;
+    private long pausedUntil;
+
+    private final LongAdder rateLimitedResponses = new LongAdder();
+    private final LongAdder throttledAcquires = new LongAdder();
+
+    public OpenAiRateLimiter() {
+        this(500, 200_000, 4, 1, 32);
+    }
+
+    @Autowired
+    public OpenAiRateLimiter(@Value("${app.openai.rate-limit.requests-per-minute:500}") long requestsPerMinute,
+                             @Value("${app.openai.rate-limit.tokens-per-minute:200000}") long tokensPerMinute,
+                             @Value("${app.openai.rate-limit.initial-concurrency:4}") int initialConcurrency,
+                             @Value("${app.openai.rate-limit.min-concurrency:1}") int minConcurrency,
+                             @Value("${app.openai.rate-limit.max-concurrency:32}") int maxConcurrency) {
+        long now = System.nanoTime();
+        this.requestBucket = new TokenBucket(requestsPerMinute, now);
+        this.tokenBucket = new TokenBucket(tokensPerMinute, now);
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.concurrencyLimit = Math.max(minConcurrency, Math.min(maxConcurrency, initialConcurrency));
+        this.pausedUntil = now;
+    }
+
+    /**
+     * Blocks until a request estimated at {@code estimatedTokens} may be sent. Every successful
+     * acquire must be paired with {@link #release()}.
+     *
+     * @throws OpenAiThrottledException if no capacity frees up before {@code deadlineNanos}
+     */
+    public void acquire(int estimatedTokens, long deadlineNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            boolean waited = false;
+            while (true) {
+                long now = System.nanoTime();
+                boolean saturated = inFlight >= (int) concurrencyLimit;
+                long wait = Math.max(pausedUntil - now, 0);
+                wait = Math.max(wait, requestBucket.nanosUntilAvailable(1, now));
+                wait = Math.max(wait, tokenBucket.nanosUntilAvailable(estimatedTokens, now));
+
+                if (!saturated && wait <= 0) {
+                    inFlight++;
+                    requestBucket.take(1, now);
+                    tokenBucket.take(estimatedTokens, now);
+                    return;
+                }
+                long remaining = deadlineNanos - now;
+                if (remaining <= 0) {
+                    throw new OpenAiThrottledException("No OpenAI capacity available before the retry deadline");
+                }
+                if (!waited) {
+                    throttledAcquires.increment();
+                    waited = true;
+                }
+                // A saturated window only frees up on release(), so wait for its signal or the deadline
+                capacityChanged.awaitNanos(saturated ? remaining : Math.min(wait, remaining));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #acquire}; returns {@code false} instead of waiting.
+     */
+    public boolean tryAcquire(int estimatedTokens) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (pausedUntil - now > 0 || inFlight >= (int) concurrencyLimit
+                    || requestBucket.nanosUntilAvailable(1, now) > 0
+                    || tokenBucket.nanosUntilAvailable(estimatedTokens, now) > 0) {
+                return false;
+            }
+            inFlight++;
+            requestBucket.take(1, now);
+            tokenBucket.take(estimatedTokens, now);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            capacityChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a successful response: grows the concurrency window, corrects the token estimate
+     * with the actual usage and honours the provider's remaining-budget headers.
+     */
+    public void onSuccess(HttpHeaders headers, int estimatedTokens, int actualTokens) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1.0 / concurrencyLimit);
+            if (actualTokens > 0) {
+                tokenBucket.take(actualTokens - estimatedTokens, now);
+            }
+            if ("0".equals(headers.getFirst("x-ratelimit-remaining-requests"))) {
+                requestBucket.drain(now);
+                pauseFor(parseOpenAiDuration(headers.getFirst("x-ratelimit-reset-requests")), now);
+            }
+            if ("0".equals(headers.getFirst("x-ratelimit-remaining-tokens"))) {
+                tokenBucket.drain(now);
+                pauseFor(parseOpenAiDuration(headers.getFirst("x-ratelimit-reset-tokens")), now);
+            }
+            capacityChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a 429: halves the concurrency window and pauses all callers for the period the
+     * provider asked for.
+     *
+     * @return how long the provider asked us to wait, {@link Duration#ZERO} if it did not say
+     */
+    public Duration onRateLimited(HttpHeaders headers) {
+        rateLimitedResponses.increment();
+        Duration retryAfter = retryAfter(headers);
+        lock.lock();
+        try {
+            concurrencyLimit = Math.max(minConcurrency, concurrencyLimit / 2);
+            pauseFor(retryAfter, System.nanoTime());
+        } finally {
+            lock.unlock();
+        }
+        return retryAfter;
+    }
+
+    public double getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("concurrencyLimit", concurrencyLimit);
+        stats.put("inFlight", inFlight);
+        stats.put("rateLimitedResponses", rateLimitedResponses.sum());
+        stats.put("throttledAcquires", throttledAcquires.sum());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("openai.ratelimit.concurrency.limit", this, OpenAiRateLimiter::getConcurrencyLimit)
+                .register(registry);
+        Gauge.builder("openai.ratelimit.in.flight", this, limiter -> limiter.inFlight)
+                .register(registry);
+        FunctionCounter.builder("openai.ratelimit.responses.429", rateLimitedResponses, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("openai.ratelimit.throttled.acquires", throttledAcquires, LongAdder::sum)
+                .register(registry);
+    }
+
+    // Must be called with the lock held
+    private void pauseFor(Duration duration, long now) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        long until = now + duration.toNanos();
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+    }
+
+    static Duration retryAfter(HttpHeaders headers) {
+        String retryAfterMs = headers.getFirst("retry-after-ms");
+        if (retryAfterMs != null) {
+            try {
+                return Duration.ofMillis((long) Double.parseDouble(retryAfterMs.trim()));
+            } catch (NumberFormatException ignored) {
+                // fall through to the standard header
+            }
+        }
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                return Duration.ofMillis((long) (Double.parseDouble(retryAfter.trim()) * 1000));
+            } catch (NumberFormatException ignored) {
+                // HTTP-date form is not used by OpenAI; fall back to the reset headers
+            }
+        }
+        Duration resetRequests = parseOpenAiDuration(headers.getFirst("x-ratelimit-reset-requests"));
+        Duration resetTokens = parseOpenAiDuration(headers.getFirst("x-ratelimit-reset-tokens"));
+        return resetRequests.compareTo(resetTokens) >= 0 ? resetRequests : resetTokens;
+    }
+
+    /**
+     * Parses OpenAI's reset durations such as {@code 20ms}, {@code 1.5s} or {@code 6m0s}.
+     */
+    static Duration parseOpenAiDuration(String value) {
+        if (value == null) {
+            return Duration.ZERO;
+        }
+        double nanos = 0;
+        Matcher matcher = OPENAI_DURATION.matcher(value.trim());
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1));
+            nanos += switch (matcher.group(2)) {
+                case "h" -> amount * TimeUnit.HOURS.toNanos(1);
+                case "m" -> amount * TimeUnit.MINUTES.toNanos(1);
+                case "s" -> amount * TimeUnit.SECONDS.toNanos(1);
+                default -> amount * TimeUnit.MILLISECONDS.toNanos(1);
+            };
+        }
+        return Duration.ofNanos((long) nanos);
+    }
+}
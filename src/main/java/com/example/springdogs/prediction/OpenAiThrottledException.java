@@ -0,0 +1,12 @@
+package com.example.springdogs.prediction;
+
+/**
+ * Thrown when a request could not get capacity from the client-side rate limiter before its
+ * retry deadline.
+ */
+public class OpenAiThrottledException extends RuntimeException {
+
+    public OpenAiThrottledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects dogs that need a prediction for a short window (or until a batch is full) and
+ * sends them to ChatGPT as one numbered prompt, so the instruction text is paid for once per
+ * batch instead of once per dog. Each submitter gets back its own dog's prediction, or
+ * {@code null} when the batched answer for that dog could not be parsed and the caller
+ * should fall back to a single-dog request.
+ */
+@Component
+public class PredictionBatcher implements DisposableBean {
+
+    private final OpenAiClient openAiClient;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration window;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService dispatcher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<PendingPrediction> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder dogsBatched = new LongAdder();
+    private final LongAdder unparsedDogs = new LongAdder();
+
+    @Autowired
+    public PredictionBatcher(OpenAiClient openAiClient,
+                             @Value("${app.prediction.batch.enabled:false}") boolean enabled,
+                             @Value("${app.prediction.batch.max-size:10}") int maxBatchSize,
+                             @Value("${app.prediction.batch.window:50ms}") Duration window,
+                             @Value("${app.prediction.batch.max-concurrent-batches:4}") int maxConcurrentBatches) {
+        this.openAiClient = openAiClient;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.window = window;
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("prediction-batch-timer-"));
+            this.dispatcher = Executors.newFixedThreadPool(maxConcurrentBatches, daemonThreads("prediction-batch-"));
+        } else {
+            this.scheduler = null;
+            this.dispatcher = null;
+        }
+    }
+
+    public static PredictionBatcher disabled() {
+        return new PredictionBatcher(null, false, 1, Duration.ZERO, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<SafetyPrediction> submit(String dogJson) {
+        PendingPrediction prediction = new PendingPrediction(dogJson, new CompletableFuture<>());
+        List<PendingPrediction> fullBatch = null;
+
+        lock.lock();
+        try {
+            pending.add(prediction);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = drain();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+        return prediction.result();
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+            "batchesSent", batchesSent.sum(),
+            "dogsBatched", dogsBatched.sum(),
+            "unparsedDogs", unparsedDogs.sum());
+    }
+
+    @Override
+    public void destroy() {
+        if (enabled) {
+            scheduler.shutdownNow();
+            dispatcher.shutdownNow();
+        }
+    }
+
+    private void flush() {
+        List<PendingPrediction> batch;
+        lock.lock();
+        try {
+            batch = drain();
+        } finally {
+            lock.unlock();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    // Must be called with the lock held
+    private List<PendingPrediction> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<PendingPrediction> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingPrediction> batch) {
+        dispatcher.execute(() -> send(batch));
+    }
+
+    void send(List<PendingPrediction> batch) {
+        // A lone dog gains nothing from the batch prompt; let the caller use the normal one
+        if (batch.size() == 1) {
+            batch.get(0).result().complete(null);
+            return;
+        }
+
+        try {
+            List<String> dogJsons = batch.stream().map(PendingPrediction::dogJson).toList();
+            String content = openAiClient.complete(
+                PredictionPrompts.batch(dogJsons), PredictionPrompts.batchMaxTokens(batch.size()));
+            Map<Integer, SafetyPrediction> predictions = BatchPredictionParser.parse(content, batch.size());
+
+            batchesSent.increment();
+            dogsBatched.add(batch.size());
+            unparsedDogs.add(batch.size() - predictions.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(predictions.get(i + 1));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(prediction -> prediction.result().completeExceptionally(e));
+        }
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    record PendingPrediction(String dogJson, CompletableFuture<SafetyPrediction> result) {
+    }
+}
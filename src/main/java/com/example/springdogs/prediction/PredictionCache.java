@@ -0,0 +1,143 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Size-bounded cache of ChatGPT predictions. Entries are weighed by the approximate bytes of
+ * their key and value, expire after a fixed TTL, and are admitted/evicted by Caffeine's
+ * W-TinyLFU policy so one-off dogs cannot flush out frequently requested ones.
+ * Misses fall through to an optional shared {@link RedisPredictionStore}, and hits there are
+ * promoted into the local cache. Failed predictions are kept separately for a short TTL so that retries of the same dog
+ * during an outage do not go back to the API straight away.
+ */
+@Component
+public class PredictionCache implements MeterBinder {
+
+    public static final long DEFAULT_MAX_WEIGHT_BYTES = 16 * 1024 * 1024;
+    public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+    public static final Duration DEFAULT_FAILURE_TTL = Duration.ofSeconds(30);
+    private static final long MAX_FAILURE_ENTRIES = 10_000;
+
+    // Approximate fixed cost of the cache node plus the prediction object header
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<PredictionKey, SafetyPrediction> cache;
+    private final Cache<PredictionKey, SafetyPrediction> failures;
+    private final long maxWeightBytes;
+    private final RedisPredictionStore secondLevel;
+
+    public PredictionCache() {
+        this(DEFAULT_MAX_WEIGHT_BYTES, DEFAULT_TTL, DEFAULT_FAILURE_TTL, RedisPredictionStore.disabled());
+    }
+
+    @Autowired
+    public PredictionCache(@Value("${app.prediction.cache.max-weight-bytes:16777216}") long maxWeightBytes,
+                           @Value("${app.prediction.cache.ttl:7d}") Duration ttl,
+                           @Value("${app.prediction.cache.failure-ttl:30s}") Duration failureTtl,
+                           RedisPredictionStore secondLevel) {
+        this(maxWeightBytes, ttl, failureTtl, secondLevel, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    PredictionCache(long maxWeightBytes, Duration ttl, Ticker ticker, Executor maintenanceExecutor) {
+        this(maxWeightBytes, ttl, DEFAULT_FAILURE_TTL, RedisPredictionStore.disabled(), ticker, maintenanceExecutor);
+    }
+
+    PredictionCache(long maxWeightBytes, Duration ttl, Duration failureTtl, RedisPredictionStore secondLevel,
+                    Ticker ticker, Executor maintenanceExecutor) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.secondLevel = secondLevel;
+        this.failures = Caffeine.newBuilder()
+                .maximumSize(MAX_FAILURE_ENTRIES)
+                .expireAfterWrite(failureTtl)
+                .ticker(ticker)
+                .executor(maintenanceExecutor)
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(PredictionCache::weigh)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .executor(maintenanceExecutor)
+                .recordStats()
+                .build();
+    }
+
+    public SafetyPrediction get(PredictionKey key) {
+        SafetyPrediction prediction = cache.getIfPresent(key);
+        if (prediction == null && secondLevel.isEnabled()) {
+            prediction = secondLevel.get(key);
+            if (prediction != null) {
+                cache.put(key, prediction);
+            }
+        }
+        return prediction;
+    }
+
+    // Local lookup that does not count towards hit/miss statistics, for re-checks after a miss
+    public SafetyPrediction getQuietly(PredictionKey key) {
+        return cache.policy().getIfPresentQuietly(key);
+    }
+
+    public void put(PredictionKey key, SafetyPrediction prediction) {
+        cache.put(key, prediction);
+        failures.invalidate(key);
+        secondLevel.put(key, prediction);
+    }
+
+    public SafetyPrediction getRecentFailure(PredictionKey key) {
+        return failures.getIfPresent(key);
+    }
+
+    public void putFailure(PredictionKey key, SafetyPrediction prediction) {
+        failures.put(key, prediction);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("weightBytes", cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L));
+        result.put("maxWeightBytes", maxWeightBytes);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("evictionWeightBytes", stats.evictionWeight());
+        result.put("recentFailures", failures.estimatedSize());
+        result.put("redis", secondLevel.getStats());
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "predictions");
+    }
+
+    static int weigh(PredictionKey key, SafetyPrediction prediction) {
+        // Two bytes per char is the worst case for String storage; the verdict is a shared enum
+        long chars = length(prediction.getSafetyExplanation());
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD_BYTES + PredictionKey.RETAINED_BYTES + 2 * chars);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
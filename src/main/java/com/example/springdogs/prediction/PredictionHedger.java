@@ -0,0 +1,325 @@
+package com.example.springdogs.prediction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Hedges slow OpenAI calls: when a call has not answered within the configured percentile of
+ * recently observed latencies, an identical second call is sent and whichever answers first
+ * wins; the other is cancelled (its thread is interrupted, which aborts the HTTP exchange).
+ * Every call earns {@code budgetRatio} of a hedge, so hedges stay a bounded fraction of
+ * traffic even when OpenAI is slow across the board. No call is hedged until
+ * {@code minSamples} latencies have been observed.
+ */
+@Component
+public class PredictionHedger implements DisposableBean, MeterBinder {
+
+    private static final int LATENCY_WINDOW = 1024;
+    // Percentile is recomputed after this many new samples rather than on every call
+    private static final int RECOMPUTE_EVERY = 32;
+    // Unspent hedge budget is capped so a quiet period cannot fund a burst of hedges
+    private static final double MAX_BUDGET = 10.0;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final int minSamples;
+    private final ExecutorService executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int recorded;
+    private int next;
+    private int sinceRecompute;
+    private volatile long hedgeDelayNanos = -1;
+    private double budget;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder estimatedSavedMillis = new LongAdder();
+
+    @Autowired
+    public PredictionHedger(@Value("${app.prediction.hedge.enabled:false}") boolean enabled,
+                            @Value("${app.prediction.hedge.percentile:0.95}") double percentile,
+                            @Value("${app.prediction.hedge.min-delay:100ms}") Duration minDelay,
+                            @Value("${app.prediction.hedge.budget-ratio:0.05}") double budgetRatio,
+                            @Value("${app.prediction.hedge.min-samples:50}") int minSamples) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1: " + percentile);
+        }
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.minSamples = Math.max(1, minSamples);
+        if (enabled) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("prediction-hedge-");
+            threadFactory.setDaemon(true);
+            // Bounded in practice by the callers blocked on it and by the OpenAI rate limiter
+            this.executor = Executors.newCachedThreadPool(threadFactory);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public static PredictionHedger disabled() {
+        return new PredictionHedger(false, 0.95, Duration.ZERO, 0.0, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code call}, hedging it if it is slow. Returns the first successful answer; if both
+     * attempts fail, the first attempt's failure is rethrown.
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        calls.increment();
+        long started = System.nanoTime();
+        earnBudget();
+
+        CompletableFuture<T> primaryResult = new CompletableFuture<>();
+        Future<?> primary = executor.submit(() -> run(call, primaryResult));
+        try {
+            long delay = hedgeDelayNanos;
+            if (delay < 0) {
+                T result = await(primaryResult, primary);
+                recordLatency(System.nanoTime() - started);
+                return result;
+            }
+            try {
+                T result = primaryResult.get(delay, TimeUnit.NANOSECONDS);
+                recordLatency(System.nanoTime() - started);
+                return result;
+            } catch (TimeoutException e) {
+                // Slower than the hedge percentile; fall through to hedging
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+
+            if (!spendBudget()) {
+                budgetExhausted.increment();
+                T result = await(primaryResult, primary);
+                recordLatency(System.nanoTime() - started);
+                return result;
+            }
+            return race(call, primaryResult, primary, started);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new OpenAiThrottledException("Interrupted while waiting for OpenAI");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("calls", calls.sum());
+        stats.put("hedgesSent", hedgesSent.sum());
+        stats.put("hedgeWins", hedgeWins.sum());
+        stats.put("budgetExhausted", budgetExhausted.sum());
+        stats.put("hedgeDelayMillis", hedgeDelayNanos < 0 ? null : TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos));
+        stats.put("estimatedSavedMillis", estimatedSavedMillis.sum());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("prediction.hedge.sent", hedgesSent, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("prediction.hedge.wins", hedgeWins, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("prediction.hedge.budget.exhausted", budgetExhausted, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("prediction.hedge.saved", estimatedSavedMillis, LongAdder::sum)
+                .description("Estimated milliseconds of latency saved by hedges that won")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("prediction.hedge.delay", this, hedger -> Math.max(0, hedger.hedgeDelayNanos) / 1e6)
+                .description("Current hedge delay in milliseconds; 0 until enough latencies were observed")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        if (enabled) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T race(Supplier<T> call, CompletableFuture<T> primaryResult, Future<?> primary, long started)
+            throws InterruptedException {
+        hedgesSent.increment();
+        long hedgeStarted = System.nanoTime();
+        CompletableFuture<T> hedgeResult = new CompletableFuture<>();
+        Future<?> hedge = executor.submit(() -> run(call, hedgeResult));
+
+        CompletableFuture<Answer<T>> winner = new CompletableFuture<>();
+        primaryResult.whenComplete((value, error) -> {
+            if (error == null) {
+                winner.complete(new Answer<>(value, false));
+            } else if (hedgeResult.isCompletedExceptionally()) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedgeResult.whenComplete((value, error) -> {
+            if (error == null) {
+                winner.complete(new Answer<>(value, true));
+            } else if (primaryResult.isCompletedExceptionally()) {
+                primaryResult.whenComplete((ignored, primaryError) -> winner.completeExceptionally(primaryError));
+            }
+        });
+
+        try {
+            Answer<T> answer = winner.get();
+            long finished = System.nanoTime();
+            if (answer.hedged()) {
+                primary.cancel(true);
+                hedgeWins.increment();
+                estimatedSavedMillis.add(estimateSavedMillis(finished - started));
+                // A lower bound for the cancelled attempt, so hedging does not hide the slow tail
+                recordLatency(finished - started);
+            } else {
+                hedge.cancel(true);
+                recordLatency(finished - started);
+            }
+            return answer.value();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            hedge.cancel(true);
+            throw e;
+        } finally {
+            // Only the attempts' own time counts; the hedge answers on its own latency too
+            if (hedgeResult.isDone() && !hedgeResult.isCompletedExceptionally()) {
+                recordLatency(System.nanoTime() - hedgeStarted);
+            }
+        }
+    }
+
+    private static <T> void run(Supplier<T> call, CompletableFuture<T> result) {
+        try {
+            result.complete(call.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result, Future<?> attempt) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            attempt.cancel(true);
+            throw e;
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        if (e.getCause() instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    // Every call adds budgetRatio of a hedge
+    private void earnBudget() {
+        lock.lock();
+        try {
+            budget = Math.min(MAX_BUDGET, budget + budgetRatio);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean spendBudget() {
+        lock.lock();
+        try {
+            if (budget < 1.0) {
+                return false;
+            }
+            budget -= 1.0;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        lock.lock();
+        try {
+            latencies[next] = nanos;
+            next = (next + 1) % LATENCY_WINDOW;
+            if (recorded < LATENCY_WINDOW) {
+                recorded++;
+            }
+            if (recorded >= minSamples && (hedgeDelayNanos < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(latencies, recorded);
+                Arrays.sort(sorted);
+                long atPercentile = sorted[Math.min(recorded - 1, (int) Math.ceil(recorded * percentile) - 1)];
+                hedgeDelayNanos = Math.max(minDelayNanos, atPercentile);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The cancelled first attempt's own latency is unknown, only that it exceeded
+     * {@code elapsedNanos}; estimate it as the mean of observed latencies at least that long,
+     * so a hedge is credited with no saving when no call has ever been that slow.
+     */
+    private long estimateSavedMillis(long elapsedNanos) {
+        lock.lock();
+        try {
+            long sum = 0;
+            int slower = 0;
+            for (int i = 0; i < recorded; i++) {
+                if (latencies[i] >= elapsedNanos) {
+                    sum += latencies[i];
+                    slower++;
+                }
+            }
+            return slower == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sum / slower - elapsedNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    record Answer<T>(T value, boolean hedged) {
+    }
+}
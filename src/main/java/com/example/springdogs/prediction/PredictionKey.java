@@ -0,0 +1,155 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size cache key for a dog's prediction: a 128-bit MurmurHash3 (x64 variant) of the
+ * canonical form of the fields that affect safety. Name and color are left out, and text fields
+ * are trimmed, lowercased and whitespace-collapsed so trivially different inputs share a key.
+ */
+public record PredictionKey(long high, long low) {
+
+    // Approximate retained size of a key instance: object header plus two longs
+    public static final int RETAINED_BYTES = 32;
+
+    // Bump when the canonical form changes so old keys are not reused
+    private static final String FORMAT = "k2";
+    private static final char SEPARATOR = '\u001f';
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+    private static final VarHandle LONG_LE =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    public static PredictionKey of(ChatGptDogDto dog) {
+        return hash(canonicalForm(dog).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String toHex() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    static String canonicalForm(ChatGptDogDto dog) {
+        StringBuilder canonical = new StringBuilder(64).append(FORMAT);
+        // Predictions made with an older prompt or model are not reused once either changes
+        canonical.append(SEPARATOR).append(PredictionPrompts.VERSION);
+        canonical.append(SEPARATOR);
+        appendText(canonical, dog.getBreed());
+        canonical.append(SEPARATOR);
+        if (dog.getAge() != null) {
+            canonical.append(dog.getAge().intValue());
+        }
+        canonical.append(SEPARATOR);
+        if (dog.getWeight() != null) {
+            // Tenths are as precise as any weight users enter
+            canonical.append(Math.round(dog.getWeight() * 10));
+        }
+        canonical.append(SEPARATOR);
+        appendText(canonical, dog.getTemperament());
+        return canonical.toString();
+    }
+
+    private static void appendText(StringBuilder canonical, String text) {
+        if (text == null) {
+            return;
+        }
+        boolean pendingSpace = false;
+        int start = canonical.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = canonical.length() > start;
+            } else {
+                if (pendingSpace) {
+                    canonical.append(' ');
+                    pendingSpace = false;
+                }
+                canonical.append(Character.toLowerCase(c));
+            }
+        }
+    }
+
+    static PredictionKey hash(byte[] data) {
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = (long) LONG_LE.get(data, i * 16);
+            long k2 = (long) LONG_LE.get(data, i * 16 + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks * 16;
+        long k1 = 0;
+        long k2 = 0;
+        switch (data.length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xff;
+                h2 ^= mixK2(k2);
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xff;
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new PredictionKey(h1, h2);
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
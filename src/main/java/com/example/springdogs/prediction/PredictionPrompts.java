@@ -0,0 +1,58 @@
+package com.example.springdogs.prediction;
+
+import java.util.List;
+
+/**
+ * Prompt text for single-dog and batched safety predictions. Both share the same rules so a
+ * dog gets the same verdict whichever way it was sent.
+ */
+public final class PredictionPrompts {
+
+    // Bump whenever the prompt text or OpenAiClient.MODEL changes: cached predictions are keyed
+    // by it, and the bulk re-prediction job records which version it scored dogs with
+    public static final String VERSION = "gpt-3.5-turbo/1";
+
+    // Completion budget for one dog's verdict and explanation
+    public static final int MAX_TOKENS_PER_DOG = 210;
+
+    private static final String VERDICTS =
+        "YES (clearly safe/friendly), NO (clearly dangerous/aggressive), CAUTIOUSLY (requires caution), ERROR (invalid data).\n\n";
+
+    private static final String RULES =
+        "Rules:\n" +
+        "- If dog shows obvious signs of friendliness, therapy work, gentle temperament = YES\n" +
+        "- If dog shows obvious signs of aggression, biting history, dangerous behavior = NO\n" +
+        "- If uncertain or mixed signals = CAUTIOUSLY\n" +
+        "- If nonsensical breed/age/weight = ERROR\n\n";
+
+    private PredictionPrompts() {
+    }
+
+    public static String singleDog(String dogJson) {
+        return "Analyze this dog data for petting safety. You MUST respond with exactly one of these four words: " +
+            VERDICTS +
+            RULES +
+            "Respond with the word only, then new line, then brief explanation.\n\n" +
+            "Dog data:" + dogJson;
+    }
+
+    public static String batch(List<String> dogJsons) {
+        StringBuilder prompt = new StringBuilder()
+            .append("Analyze each of the following numbered dogs for petting safety. ")
+            .append("For every dog you MUST choose exactly one of these four words: ")
+            .append(VERDICTS)
+            .append(RULES)
+            .append("Respond with exactly one line per dog, in the same order, formatted as:\n")
+            .append("<dog number>|<WORD>|<brief explanation>\n\n")
+            .append("Dogs:\n");
+        for (int i = 0; i < dogJsons.size(); i++) {
+            prompt.append(i + 1).append(": ").append(dogJsons.get(i)).append('\n');
+        }
+        return prompt.toString();
+    }
+
+    public static int batchMaxTokens(int dogCount) {
+        // Batched explanations are one line each, so they need less room than a single answer
+        return Math.min(4096, 32 + dogCount * (MAX_TOKENS_PER_DOG / 2));
+    }
+}
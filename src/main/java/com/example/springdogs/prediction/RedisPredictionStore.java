@@ -0,0 +1,176 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Redis-backed second level of the prediction cache, shared by every node and surviving
+ * restarts. Predictions are stored as JSON under the dog's {@link PredictionKey} with a
+ * TTL. Redis is strictly optional: after a failure the store is bypassed for
+ * {@code retryAfterFailure} so that an outage costs one error, not one timeout per request.
+ */
+@Component
+public class RedisPredictionStore implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisPredictionStore.class);
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean enabled;
+    private final Duration ttl;
+    private final String keyPrefix;
+    private final long retryAfterFailureNanos;
+    private final LongSupplier clock;
+
+    private volatile long unavailableUntil;
+    private volatile boolean available = true;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    @Autowired
+    public RedisPredictionStore(StringRedisTemplate redis,
+                                @Value("${app.prediction.cache.redis.enabled:false}") boolean enabled,
+                                @Value("${app.prediction.cache.redis.ttl:30d}") Duration ttl,
+                                @Value("${app.prediction.cache.redis.key-prefix:prediction:}") String keyPrefix,
+                                @Value("${app.prediction.cache.redis.retry-after-failure:30s}") Duration retryAfterFailure) {
+        this(redis, enabled, ttl, keyPrefix, retryAfterFailure, System::nanoTime);
+    }
+
+    RedisPredictionStore(StringRedisTemplate redis, boolean enabled, Duration ttl, String keyPrefix,
+                         Duration retryAfterFailure, LongSupplier clock) {
+        this.redis = redis;
+        this.enabled = enabled && redis != null;
+        this.ttl = ttl;
+        this.keyPrefix = keyPrefix;
+        this.retryAfterFailureNanos = retryAfterFailure.toNanos();
+        this.clock = clock;
+    }
+
+    public static RedisPredictionStore disabled() {
+        return new RedisPredictionStore(null, false, Duration.ZERO, "", Duration.ZERO, System::nanoTime);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return the stored prediction, or {@code null} on a miss or if Redis is unavailable
+     */
+    public SafetyPrediction get(PredictionKey dogKey) {
+        if (!shouldAttempt()) {
+            return null;
+        }
+        try {
+            String json = redis.opsForValue().get(redisKey(dogKey));
+            markAvailable();
+            if (json == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return objectMapper.readValue(json, SafetyPrediction.class);
+        } catch (JsonProcessingException e) {
+            // Unreadable entry, e.g. written by an incompatible version; treat as a miss
+            misses.increment();
+            return null;
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+            return null;
+        }
+    }
+
+    public void put(PredictionKey dogKey, SafetyPrediction prediction) {
+        if (!shouldAttempt()) {
+            return;
+        }
+        try {
+            redis.opsForValue().set(redisKey(dogKey), objectMapper.writeValueAsString(prediction), ttl);
+            markAvailable();
+            writes.increment();
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize prediction for Redis: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            markUnavailable(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("available", enabled && available);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("writes", writes.sum());
+        stats.put("errors", errors.sum());
+        stats.put("bypassed", bypassed.sum());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        FunctionCounter.builder("prediction.cache.l2.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(registry);
+        FunctionCounter.builder("prediction.cache.l2.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(registry);
+        FunctionCounter.builder("prediction.cache.l2.errors", errors, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("prediction.cache.l2.bypassed", bypassed, LongAdder::sum)
+                .register(registry);
+    }
+
+    String redisKey(PredictionKey dogKey) {
+        return keyPrefix + dogKey.toHex();
+    }
+
+    private boolean shouldAttempt() {
+        if (!enabled) {
+            return false;
+        }
+        if (!available && clock.getAsLong() - unavailableUntil < 0) {
+            bypassed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void markAvailable() {
+        if (!available) {
+            available = true;
+            logger.info("Redis prediction cache is reachable again");
+        }
+    }
+
+    private void markUnavailable(RuntimeException e) {
+        errors.increment();
+        unavailableUntil = clock.getAsLong() + retryAfterFailureNanos;
+        if (available) {
+            available = false;
+            logger.warn("Redis prediction cache unavailable, using local cache only for {}s: {}",
+                    Duration.ofNanos(retryAfterFailureNanos).toSeconds(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process pre-screen applying the prompt's YES/NO rules to the temperament text. Dogs whose
+ * temperament only contains clear friendliness/therapy phrases are answered Yes, dogs with
+ * aggression or bite-history phrases are answered No; anything negated, mixed, unmatched or
+ * with implausible data is escalated to OpenAI.
+ */
+@Component
+public class RulePrescreen implements MeterBinder {
+
+    enum Signal {
+        YES, NO, CAUTION, NEGATION
+    }
+
+    enum Escalation {
+        INVALID_DATA, NEGATED, AMBIGUOUS, NO_MATCH
+    }
+
+    record Rule(String name, Signal signal, String description, List<String> phrases) {
+    }
+
+    static final List<Rule> RULES = List.of(
+        new Rule("therapy-work", Signal.YES, "therapy or service work",
+            List.of("therapy dog", "therapy work", "certified therapy", "service dog", "assistance dog",
+                "emotional support dog")),
+        new Rule("good-with-children", Signal.YES, "good with children and families",
+            List.of("great with kids", "great with children", "good with kids", "good with children",
+                "gentle with kids", "gentle with children", "loves kids", "loves children",
+                "great with families", "good with families", "excellent with families", "family friendly")),
+        new Rule("gentle-temperament", Signal.YES, "a friendly, gentle temperament",
+            List.of("friendly", "gentle", "loving", "affectionate", "sweet natured", "cuddly", "docile",
+                "calm", "well socialized", "well behaved", "gentle giant", "best friend")),
+        new Rule("bite-history", Signal.NO, "a history of biting",
+            List.of("bites", "bitten", "biting", "bite history", "bite record", "bite incident",
+                "bite incidents", "bites on record")),
+        new Rule("aggression", Signal.NO, "aggressive or dangerous behavior",
+            List.of("aggressive", "aggression", "attacked", "attacks people", "mauled", "vicious",
+                "dangerous", "killer", "dog aggressive", "people aggressive")),
+        new Rule("handling-warning", Signal.NO, "an explicit handling warning",
+            List.of("do not approach", "never approach", "don t approach", "must be muzzled", "muzzle required",
+                "euthanasia")),
+        new Rule("caution-markers", Signal.CAUTION, "behavior that calls for caution",
+            List.of("protective", "territorial", "reactive", "nervous", "anxious", "fearful", "shy", "skittish",
+                "unpredictable", "guarded", "wary", "growls", "growling", "snaps", "snappy", "resource guarding",
+                "unfriendly", "dominant")),
+        new Rule("negation", Signal.NEGATION, "negated wording",
+            List.of("not", "no", "never", "zero", "without", "non", "isn t", "doesn t", "don t", "hasn t",
+                "wasn t", "free of"))
+    );
+
+    private static final int MAX_PLAUSIBLE_AGE = 30;
+    private static final double MAX_PLAUSIBLE_WEIGHT = 250.0;
+
+    private final boolean enabled;
+    private final AhoCorasickMatcher matcher;
+    private final int[] phraseRule;
+    private final String[] phraseText;
+    private final LongAdder[] ruleHits = new LongAdder[RULES.size()];
+    private final Map<Escalation, LongAdder> escalations = new EnumMap<>(Escalation.class);
+    private final LongAdder screened = new LongAdder();
+
+    public RulePrescreen() {
+        this(true);
+    }
+
+    @Autowired
+    public RulePrescreen(@Value("${app.prediction.prescreen.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        List<String> phrases = new ArrayList<>();
+        List<Integer> rules = new ArrayList<>();
+        for (int r = 0; r < RULES.size(); r++) {
+            for (String phrase : RULES.get(r).phrases()) {
+                phrases.add(phrase);
+                rules.add(r);
+            }
+            ruleHits[r] = new LongAdder();
+        }
+        this.matcher = new AhoCorasickMatcher(phrases);
+        this.phraseRule = rules.stream().mapToInt(Integer::intValue).toArray();
+        this.phraseText = phrases.toArray(new String[0]);
+        for (Escalation escalation : Escalation.values()) {
+            escalations.put(escalation, new LongAdder());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return a local Yes/No prediction, or {@code null} if the dog has to be sent to OpenAI
+     */
+    public SafetyPrediction screen(ChatGptDogDto dog) {
+        if (!enabled) {
+            return null;
+        }
+        screened.increment();
+        if (!isPlausible(dog)) {
+            return escalate(Escalation.INVALID_DATA);
+        }
+        if (dog.getTemperament() == null || dog.getTemperament().isBlank()) {
+            return escalate(Escalation.NO_MATCH);
+        }
+
+        String text = AhoCorasickMatcher.normalize(dog.getTemperament());
+        MatchCollector matches = new MatchCollector();
+        matcher.match(text, matches);
+
+        if (matches.hasUncoveredNegation()) {
+            return escalate(Escalation.NEGATED);
+        }
+        if (matches.first(Signal.NO) >= 0) {
+            // Aggression outweighs caution markers, but not contradicting friendly phrases
+            if (matches.first(Signal.YES) >= 0) {
+                return escalate(Escalation.AMBIGUOUS);
+            }
+            return decide(SafetyLevel.NO, matches.first(Signal.NO));
+        }
+        if (matches.first(Signal.YES) >= 0) {
+            if (matches.first(Signal.CAUTION) >= 0) {
+                return escalate(Escalation.AMBIGUOUS);
+            }
+            return decide(SafetyLevel.YES, matches.first(Signal.YES));
+        }
+        return escalate(matches.first(Signal.CAUTION) >= 0 ? Escalation.AMBIGUOUS : Escalation.NO_MATCH);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long absorbed = 0;
+        Map<String, Long> hits = new LinkedHashMap<>();
+        for (int r = 0; r < RULES.size(); r++) {
+            Signal signal = RULES.get(r).signal();
+            if (signal == Signal.YES || signal == Signal.NO) {
+                long count = ruleHits[r].sum();
+                hits.put(RULES.get(r).name(), count);
+                absorbed += count;
+            }
+        }
+        Map<String, Long> escalated = new LinkedHashMap<>();
+        escalations.forEach((reason, count) -> escalated.put(reason.name(), count.sum()));
+        stats.put("enabled", enabled);
+        stats.put("screened", screened.sum());
+        stats.put("absorbed", absorbed);
+        stats.put("ruleHits", hits);
+        stats.put("escalated", escalated);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int r = 0; r < RULES.size(); r++) {
+            Rule rule = RULES.get(r);
+            if (rule.signal() == Signal.YES || rule.signal() == Signal.NO) {
+                FunctionCounter.builder("prediction.prescreen.hits", ruleHits[r], LongAdder::sum)
+                        .tag("rule", rule.name())
+                        .tag("verdict", rule.signal().name())
+                        .register(registry);
+            }
+        }
+        escalations.forEach((reason, count) ->
+                FunctionCounter.builder("prediction.prescreen.escalated", count, LongAdder::sum)
+                        .tag("reason", reason.name().toLowerCase())
+                        .register(registry));
+    }
+
+    private SafetyPrediction decide(SafetyLevel verdict, int phraseId) {
+        int ruleIndex = phraseRule[phraseId];
+        Rule rule = RULES.get(ruleIndex);
+        ruleHits[ruleIndex].increment();
+        return new SafetyPrediction(verdict,
+            "Temperament mentions \"" + phraseText[phraseId] + "\", indicating " + rule.description()
+                + " (local rule: " + rule.name() + ").");
+    }
+
+    private SafetyPrediction escalate(Escalation reason) {
+        escalations.get(reason).increment();
+        return null;
+    }
+
+    // Implausible values are left to the model, which answers ERROR for nonsensical data
+    private static boolean isPlausible(ChatGptDogDto dog) {
+        if (dog.getBreed() == null || dog.getBreed().isBlank()) {
+            return false;
+        }
+        if (dog.getAge() == null || dog.getAge() < 0 || dog.getAge() > MAX_PLAUSIBLE_AGE) {
+            return false;
+        }
+        return dog.getWeight() == null || (dog.getWeight() > 0 && dog.getWeight() <= MAX_PLAUSIBLE_WEIGHT);
+    }
+
+    /**
+     * First matching phrase per signal, plus negations not already part of a matched
+     * verdict phrase ("never approach" is a warning, not a negation).
+     */
+    private final class MatchCollector implements AhoCorasickMatcher.MatchHandler {
+
+        private final int[] firstPhrase = {-1, -1, -1, -1};
+        private final List<int[]> verdictSpans = new ArrayList<>(4);
+        private final List<int[]> negationSpans = new ArrayList<>(2);
+
+        @Override
+        public void onMatch(int phraseId, int start, int end) {
+            Signal signal = RULES.get(phraseRule[phraseId]).signal();
+            if (firstPhrase[signal.ordinal()] < 0) {
+                firstPhrase[signal.ordinal()] = phraseId;
+            }
+            (signal == Signal.NEGATION ? negationSpans : verdictSpans).add(new int[] {start, end});
+        }
+
+        int first(Signal signal) {
+            return firstPhrase[signal.ordinal()];
+        }
+
+        boolean hasUncoveredNegation() {
+            for (int[] negation : negationSpans) {
+                boolean covered = false;
+                for (int[] verdict : verdictSpans) {
+                    if (verdict[0] <= negation[0] && negation[1] <= verdict[1]) {
+                        covered = true;
+                        break;
+                    }
+                }
+                if (!covered) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
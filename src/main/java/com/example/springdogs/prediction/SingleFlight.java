@@ -0,0 +1,88 @@
+package com.example.springdogs.prediction;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call and every caller
+ * that arrives while it is outstanding waits for and shares its result. Nothing is remembered
+ * once the call completes, so this complements rather than replaces a cache.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, leader);
+        if (inFlight != null) {
+            coalesced.increment();
+            return await(inFlight);
+        }
+
+        executed.increment();
+        try {
+            V value = call.get();
+            leader.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, leader);
+        }
+    }
+
+    /**
+     * Asynchronous form of {@link #execute}: either joins the call already in flight for
+     * {@code key}, or registers the caller as leader, who must then complete the returned
+     * future themselves.
+     */
+    public Flight<V> lead(K key) {
+        CompletableFuture<V> leader = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, leader);
+        if (inFlight != null) {
+            coalesced.increment();
+            return new Flight<>(inFlight, false);
+        }
+        executed.increment();
+        leader.whenComplete((value, error) -> calls.remove(key, leader));
+        return new Flight<>(leader, true);
+    }
+
+    public record Flight<V>(CompletableFuture<V> result, boolean leader) {
+    }
+
+    public int inFlight() {
+        return calls.size();
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    private V await(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's own exception rather than the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.PredictionStreamEvent;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental counterpart of {@code ChatGptService.parseSafetyResponse} for streamed
+ * completions. The verdict is emitted as soon as its line is complete and the explanation line
+ * is relayed piece by piece as content deltas arrive; {@link #finish()} yields the same
+ * prediction the non-streaming parser would store. Not thread-safe: one instance per stream.
+ */
+public class StreamingPredictionParser {
+
+    private final StringBuilder content = new StringBuilder();
+    private SafetyLevel verdict;
+    private boolean verdictLineComplete;
+    private int explanationStart = -1;
+    private int explanationEnd = -1;
+    private int emitted;
+
+    public List<PredictionStreamEvent> accept(String delta) {
+        content.append(delta);
+        List<PredictionStreamEvent> events = new ArrayList<>(2);
+        if (!verdictLineComplete) {
+            int newline = content.indexOf("\n");
+            if (newline < 0) {
+                return events;
+            }
+            verdictLineComplete = true;
+            emitted = newline + 1;
+            verdict = SafetyLevel.parseVerdict(content, 0, newline);
+            if (verdict != null) {
+                events.add(PredictionStreamEvent.verdict(verdict));
+            }
+        }
+        if (verdict != null && explanationEnd < 0) {
+            relayExplanation(events);
+        }
+        return events;
+    }
+
+    /**
+     * Completes the stream: emits anything not yet relayed followed by the final prediction.
+     */
+    public List<PredictionStreamEvent> finish() {
+        List<PredictionStreamEvent> events = new ArrayList<>(3);
+        SafetyPrediction prediction = getResult();
+        if (verdict == null) {
+            events.add(PredictionStreamEvent.verdict(prediction.getIsSafeToPet()));
+            events.add(PredictionStreamEvent.explanation(prediction.getSafetyExplanation()));
+        } else if (explanationStart < 0) {
+            events.add(PredictionStreamEvent.explanation(prediction.getSafetyExplanation()));
+        }
+        events.add(PredictionStreamEvent.done(prediction));
+        return events;
+    }
+
+    public SafetyPrediction getResult() {
+        if (content.toString().isBlank()) {
+            return new SafetyPrediction(SafetyLevel.ERROR, "API call failed - no response received");
+        }
+        if (!verdictLineComplete) {
+            // Single-line answer: the verdict word alone
+            SafetyLevel level = SafetyLevel.parseVerdict(content);
+            return level != null
+                ? new SafetyPrediction(level, "No explanation provided")
+                : invalid(content.toString().trim());
+        }
+        if (verdict == null) {
+            return invalid(content.substring(0, content.indexOf("\n")).trim());
+        }
+        if (explanationStart < 0) {
+            return new SafetyPrediction(verdict, "No explanation provided");
+        }
+        int end = explanationEnd >= 0 ? explanationEnd : content.length();
+        return new SafetyPrediction(verdict, content.substring(explanationStart, end).trim());
+    }
+
+    private void relayExplanation(List<PredictionStreamEvent> events) {
+        if (explanationStart < 0) {
+            // The explanation is the first non-blank line after the verdict
+            while (emitted < content.length() && Character.isWhitespace(content.charAt(emitted))) {
+                emitted++;
+            }
+            if (emitted == content.length()) {
+                return;
+            }
+            explanationStart = emitted;
+        }
+        int newline = content.indexOf("\n", emitted);
+        int stop = newline >= 0 ? newline : content.length();
+        if (stop > emitted) {
+            events.add(PredictionStreamEvent.explanation(content.substring(emitted, stop)));
+            emitted = stop;
+        }
+        if (newline >= 0) {
+            explanationEnd = newline;
+        }
+    }
+
+    private static SafetyPrediction invalid(String raw) {
+        return new SafetyPrediction(SafetyLevel.ERROR, "Invalid prediction format from ChatGPT: " + raw);
+    }
+}
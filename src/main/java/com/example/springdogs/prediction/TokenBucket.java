@@ -0,0 +1,53 @@
+package com.example.springdogs.prediction;
+
+/**
+ * Continuously refilling token bucket sized for a per-minute budget. Not thread-safe; callers
+ * guard it with their own lock. Times are {@link System#nanoTime()} values.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_MINUTE = 60_000_000_000.0;
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double available;
+    private long lastRefill;
+
+    public TokenBucket(long perMinute, long nowNanos) {
+        this.capacity = perMinute;
+        this.refillPerNano = perMinute / NANOS_PER_MINUTE;
+        this.available = perMinute;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * @return nanoseconds until {@code tokens} can be taken, 0 if they are available now.
+     * Requests larger than the whole bucket only wait for a full bucket.
+     */
+    public long nanosUntilAvailable(double tokens, long nowNanos) {
+        refill(nowNanos);
+        double needed = Math.min(tokens, capacity) - available;
+        return needed <= 0 ? 0 : (long) Math.ceil(needed / refillPerNano);
+    }
+
+    /**
+     * Takes tokens, possibly going into debt; a negative amount returns tokens to the bucket.
+     */
+    public void take(double tokens, long nowNanos) {
+        refill(nowNanos);
+        available = Math.min(capacity, available - tokens);
+    }
+
+    public void drain(long nowNanos) {
+        refill(nowNanos);
+        available = Math.min(available, 0);
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefill;
+        if (elapsed > 0) {
+            available = Math.min(capacity, available + elapsed * refillPerNano);
+            lastRefill = nowNanos;
+        }
+    }
+}
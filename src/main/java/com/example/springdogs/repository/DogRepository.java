@@ -1,29 +1,42 @@
 package com.example.springdogs.repository;
 
+import com.example.springdogs.dto.DogVersion;
 import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface DogRepository extends JpaRepository<Dog, Long> {
+public interface DogRepository extends JpaRepository<Dog, Long>, JpaSpecificationExecutor<Dog>, DogRepositoryCustom {
     
     // Search dogs by various criteria
     Page<Dog> findByNameContainingIgnoreCase(String name, Pageable pageable);
     
     Page<Dog> findByBreedContainingIgnoreCase(String breed, Pageable pageable);
     
-        // Combined search
-        @Query("SELECT d FROM Dog d WHERE " +
-               "(LOWER(d.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
-               "(LOWER(d.breed) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) OR " +
-               "(LOWER(d.color) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-        Page<Dog> searchDogs(@Param("searchTerm") String searchTerm, Pageable pageable);
-
         // Filter by safety prediction
-        Page<Dog> findByIsSafeToPet(String isSafeToPet, Pageable pageable);
+        Page<Dog> findByIsSafeToPet(SafetyLevel isSafeToPet, Pageable pageable);
+
+        // Keyset iteration for batch jobs: seeks on the primary key instead of counting past an offset
+        List<Dog> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+        // Same walk over the dogs with one prediction, e.g. those still pending
+        List<Dog> findByIsSafeToPetAndIdGreaterThanOrderByIdAsc(SafetyLevel isSafeToPet, Long id, Pageable pageable);
+
+        // Validates a client's copy of a dog without loading the row's long text columns
+        @Query("SELECT new com.example.springdogs.dto.DogVersion(d.id, d.updatedAt) FROM Dog d WHERE d.id = :id")
+        Optional<DogVersion> findVersionById(@Param("id") Long id);
+
+        // Rows of (breed, prediction, count); walks the breed/prediction index rather than the table
+        @Query("SELECT d.breed, d.isSafeToPet, COUNT(d) FROM Dog d GROUP BY d.breed, d.isSafeToPet")
+        List<Object[]> countByBreedAndPrediction();
 }
 
@@ -0,0 +1,30 @@
+package com.example.springdogs.repository;
+
+import com.example.springdogs.dto.DogCard;
+import com.example.springdogs.model.Dog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface DogRepositoryCustom {
+
+    /**
+     * Like {@code findAll(spec, pageable)} but without the count query: reads one row past the
+     * page to tell whether another page follows.
+     */
+    Slice<Dog> findSlice(Specification<Dog> spec, Pageable pageable);
+
+    /**
+     * Card columns of a slice of matching dogs. Rows are constructed straight into
+     * {@link DogCard}s, so no entity is hydrated, managed or snapshotted for dirty checking.
+     */
+    Slice<DogCard> findCards(Specification<Dog> spec, Pageable pageable);
+
+    /**
+     * Card columns of the given dogs, in no particular order.
+     */
+    List<DogCard> findCardsById(Collection<Long> ids);
+}
@@ -0,0 +1,81 @@
+package com.example.springdogs.repository;
+
+import com.example.springdogs.dto.DogCard;
+import com.example.springdogs.model.Dog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+// Read-only transactions, as SimpleJpaRepository declares for the inherited finders
+@Transactional(readOnly = true)
+class DogRepositoryCustomImpl implements DogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Dog> findSlice(Specification<Dog> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Dog> query = cb.createQuery(Dog.class);
+        Root<Dog> dog = query.from(Dog.class);
+        return slice(query, dog, spec, pageable);
+    }
+
+    @Override
+    public Slice<DogCard> findCards(Specification<Dog> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DogCard> query = cb.createQuery(DogCard.class);
+        Root<Dog> dog = query.from(Dog.class);
+        query.select(card(dog, cb));
+        return slice(query, dog, spec, pageable);
+    }
+
+    @Override
+    public List<DogCard> findCardsById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DogCard> query = cb.createQuery(DogCard.class);
+        Root<Dog> dog = query.from(Dog.class);
+        query.select(card(dog, cb)).where(dog.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private <T> Slice<T> slice(CriteriaQuery<T> query, Root<Dog> dog, Specification<Dog> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = spec.toPredicate(dog, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), dog, cb));
+
+        List<T> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private static CompoundSelection<DogCard> card(Root<Dog> dog, CriteriaBuilder cb) {
+        return cb.construct(DogCard.class,
+                dog.get("id"), dog.get("name"), dog.get("breed"), dog.get("age"), dog.get("weight"),
+                cb.substring(dog.get("temperament"), 1, DogCard.TEMPERAMENT_PREVIEW_LENGTH),
+                dog.get("isSafeToPet"),
+                cb.substring(dog.get("safetyExplanation"), 1, DogCard.EXPLANATION_PREVIEW_LENGTH));
+    }
+}
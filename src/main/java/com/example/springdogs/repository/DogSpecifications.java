@@ -0,0 +1,67 @@
+package com.example.springdogs.repository;
+
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Predicates for the filter part of a dog listing. Each one is a plain equality or range on
+ * an indexed column, so the combination seeks one of the composite indexes declared on
+ * {@link Dog} instead of scanning the table.
+ */
+public final class DogSpecifications {
+
+    private DogSpecifications() {
+    }
+
+    public static Specification<Dog> matches(SafetyLevel prediction, String breed,
+                                             Integer minAge, Integer maxAge,
+                                             Double minWeight, Double maxWeight) {
+        Specification<Dog> spec = Specification.where(null);
+        if (prediction != null) {
+            spec = spec.and((dog, query, cb) -> cb.equal(dog.get("isSafeToPet"), prediction));
+        }
+        if (breed != null) {
+            spec = spec.and((dog, query, cb) -> cb.equal(dog.get("breed"), breed));
+        }
+        if (minAge != null) {
+            spec = spec.and((dog, query, cb) -> cb.greaterThanOrEqualTo(dog.get("age"), minAge));
+        }
+        if (maxAge != null) {
+            spec = spec.and((dog, query, cb) -> cb.lessThanOrEqualTo(dog.get("age"), maxAge));
+        }
+        if (minWeight != null) {
+            spec = spec.and((dog, query, cb) -> cb.greaterThanOrEqualTo(dog.get("weight"), minWeight));
+        }
+        if (maxWeight != null) {
+            spec = spec.and((dog, query, cb) -> cb.lessThanOrEqualTo(dog.get("weight"), maxWeight));
+        }
+        return spec;
+    }
+
+    /**
+     * Rows after {@code (value, id)} in {@code (property, id)} order, the seek half of keyset
+     * pagination. The leading {@code >=} (or {@code <=}) on the property alone is redundant but
+     * lets the database seek an index on it instead of evaluating the OR row by row.
+     */
+    public static <T extends Comparable<? super T>> Specification<Dog> after(String property, T value,
+                                                                             Long id, boolean descending) {
+        return (dog, query, cb) -> {
+            Path<T> key = dog.get(property);
+            Path<Long> dogId = dog.get("id");
+            if (descending) {
+                return cb.and(cb.lessThanOrEqualTo(key, value),
+                        cb.or(cb.lessThan(key, value), cb.lessThan(dogId, id)));
+            }
+            return cb.and(cb.greaterThanOrEqualTo(key, value),
+                    cb.or(cb.greaterThan(key, value), cb.greaterThan(dogId, id)));
+        };
+    }
+
+    public static Specification<Dog> afterId(Long id, boolean descending) {
+        return (dog, query, cb) -> descending
+                ? cb.lessThan(dog.get("id"), id)
+                : cb.greaterThan(dog.get("id"), id);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.springdogs.repository;
+
+import com.example.springdogs.model.PredictionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PredictionJobRepository extends JpaRepository<PredictionJob, Long> {
+
+    Optional<PredictionJob> findFirstByOrderByIdDesc();
+
+    Optional<PredictionJob> findFirstByStatusOrderByIdDesc(PredictionJob.Status status);
+}
@@ -0,0 +1,421 @@
+package com.example.springdogs.search;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.repository.DogRepository;
+import com.example.springdogs.service.DogChangedEvent;
+import com.example.springdogs.service.DogCursor;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded Lucene inverted index over dog name, breed, color and temperament. Searches match
+ * every word of the term (the last one as a prefix, for search-as-you-type) in any of those
+ * fields, ranked by relevance with name and breed matches weighted highest. The index is
+ * rebuilt from the database at startup and kept in sync from {@link DogChangedEvent}s once the
+ * change has committed. The listing filters (prediction, breed, age and weight ranges) are
+ * indexed too, so a search combined with filters is answered by the index alone.
+ */
+@Component
+public class DogSearchIndex implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DogSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String PREDICTION = "prediction";
+    private static final String BREED_EXACT = "breed_exact";
+    private static final String AGE = "age";
+    private static final String WEIGHT = "weight";
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(
+            "name", 3.0f, "breed", 2.0f, "color", 1.0f, "temperament", 0.5f);
+    // Doc-values fields backing the sort properties the listing API accepts
+    private static final Map<String, SortField.Type> SORT_FIELDS = Map.of(
+            "id", SortField.Type.LONG, "name", SortField.Type.STRING, "breed", SortField.Type.STRING,
+            "age", SortField.Type.LONG, "weight", SortField.Type.DOUBLE);
+    private static final String SORT_SUFFIX = "_sort";
+
+    private final DogRepository dogRepository;
+    private final TransactionTemplate freshRead;
+    private final int rebuildPageSize;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // Serializes re-reading a dog with writing its document, so a slower listener holding an
+    // older read cannot overwrite a newer one. The read must see the latest committed row,
+    // hence freshRead.
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    @Autowired
+    public DogSearchIndex(DogRepository dogRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.search.index-dir:}") String indexDir,
+                          @Value("${app.search.rebuild-page-size:1000}") int rebuildPageSize) throws IOException {
+        this.dogRepository = dogRepository;
+        // Listeners run after commit while the writer's EntityManager is still bound, and it would
+        // answer from its own cache; a new transaction gets a new EntityManager and reads the row
+        this.freshRead = new TransactionTemplate(transactionManager);
+        freshRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        freshRead.setReadOnly(true);
+        this.rebuildPageSize = rebuildPageSize;
+        // Rebuilt on every start, so a directory only moves the index off the heap
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE);
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * One page of matching dog ids in rank order, and the total number of matches.
+     */
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    /**
+     * Finds dogs matching every word of the criteria's search term and all of its filters.
+     * Results are ordered by relevance unless the pageable is sorted by id, name, breed, age or
+     * weight; other sort properties are ignored.
+     *
+     * @throws IllegalArgumentException if the prediction filter is not a known prediction
+     */
+    public Hits search(DogSearchCriteria criteria, Pageable pageable) {
+        Query query = buildQuery(criteria);
+        if (query == null) {
+            return new Hits(List.of(), 0);
+        }
+        // Top-N collection stops counting early; the page total needs the exact count
+        return collect(query, pageable, pageable.getPageSize(), true);
+    }
+
+    /**
+     * Like {@link #search} but without counting every match: returns up to one id past the
+     * page, so the caller can tell whether another page follows.
+     */
+    public List<Long> searchSlice(DogSearchCriteria criteria, Pageable pageable) {
+        Query query = buildQuery(criteria);
+        if (query == null) {
+            return List.of();
+        }
+        return collect(query, pageable, pageable.getPageSize() + 1, false).ids();
+    }
+
+    /**
+     * Up to {@code limit} ids of dogs matching the criteria that come after the cursor in its
+     * {@code (sort key, id)} order. Each page resumes from the cursor's values rather than
+     * skipping earlier hits, so deep pages cost no more than the first.
+     *
+     * @throws IllegalArgumentException if the prediction filter is not a known prediction
+     */
+    public List<Long> searchAfter(DogSearchCriteria criteria, DogCursor cursor, int limit) {
+        Query query = buildQuery(criteria);
+        if (query == null) {
+            return List.of();
+        }
+        SortField idField = new SortField("id" + SORT_SUFFIX, SortField.Type.LONG, cursor.descending());
+        Sort sort;
+        Object[] after;
+        if (cursor.sortKey().equals("id")) {
+            sort = new Sort(idField);
+            after = new Object[] {cursor.lastId()};
+        } else {
+            SortField.Type type = SORT_FIELDS.get(cursor.sortKey());
+            sort = new Sort(new SortField(cursor.sortKey() + SORT_SUFFIX, type, cursor.descending()), idField);
+            after = cursor.isFirst() ? null : new Object[] {
+                    type == SortField.Type.LONG ? (Object) Long.valueOf(cursor.lastValue())
+                            : new BytesRef(cursor.lastValue().toLowerCase(Locale.ROOT)),
+                    cursor.lastId()};
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = cursor.isFirst()
+                        ? searcher.search(query, limit, sort)
+                        // Lucene only uses the doc number to break ties, which the id already rules out,
+                        // but it must still lie inside the reader
+                        : searcher.searchAfter(new FieldDoc(0, Float.NaN, after), query, limit, sort);
+                List<Long> ids = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc hit : top.scoreDocs) {
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Ahead of DogDataGeneration#onDogChanged; see the ordering contract there
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDogChanged(DogChangedEvent event) {
+        updateLock.lock();
+        try {
+            Dog dog = freshRead.execute(status -> dogRepository.findById(event.dogId()).orElse(null));
+            if (dog != null) {
+                index(dog);
+            } else {
+                delete(event.dogId());
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            // The write itself has committed; the next change or restart re-indexes the dog
+            logger.error("Could not update the search index for dog {}", event.dogId(), e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Re-indexes every dog, reading the table a page at a time by id. Changes committed while
+     * this runs wait for it and are applied afterwards.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        updateLock.lock();
+        try {
+            long started = System.nanoTime();
+            writer.deleteAll();
+            long lastId = 0;
+            int indexed = 0;
+            List<Dog> page;
+            do {
+                page = dogRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildPageSize));
+                for (Dog dog : page) {
+                    writer.addDocument(toDocument(dog));
+                    lastId = dog.getId();
+                }
+                indexed += page.size();
+            } while (page.size() == rebuildPageSize);
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            logger.info("Indexed {} dogs for search in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private Hits collect(Query query, Pageable pageable, int size, boolean count) {
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + size);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Sort sort = toSort(pageable.getSort());
+                TopDocs top = sort == null ? searcher.search(query, limit) : searcher.search(query, limit, sort);
+                List<Long> ids = new ArrayList<>(size);
+                for (int i = (int) pageable.getOffset(); i < top.scoreDocs.length; i++) {
+                    ScoreDoc hit = top.scoreDocs[i];
+                    ids.add(Long.valueOf(searcher.storedFields().document(hit.doc).get(ID)));
+                }
+                return new Hits(ids, count ? searcher.count(query) : -1);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void index(Dog dog) {
+        try {
+            writer.updateDocument(new Term(ID, dog.getId().toString()), toDocument(dog));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void delete(Long dogId) {
+        try {
+            writer.deleteDocuments(new Term(ID, dogId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Document toDocument(Dog dog) {
+        Document document = new Document();
+        document.add(new StringField(ID, dog.getId().toString(), Field.Store.YES));
+        addText(document, "name", dog.getName());
+        addText(document, "breed", dog.getBreed());
+        addText(document, "color", dog.getColor());
+        addText(document, "temperament", dog.getTemperament());
+
+        if (dog.getIsSafeToPet() != null) {
+            document.add(new StringField(PREDICTION, dog.getIsSafeToPet().name(), Field.Store.NO));
+        }
+        if (dog.getBreed() != null) {
+            document.add(new StringField(BREED_EXACT, dog.getBreed(), Field.Store.NO));
+        }
+        if (dog.getAge() != null) {
+            document.add(new IntPoint(AGE, dog.getAge()));
+        }
+        if (dog.getWeight() != null) {
+            document.add(new DoublePoint(WEIGHT, dog.getWeight()));
+        }
+
+        document.add(new NumericDocValuesField("id" + SORT_SUFFIX, dog.getId()));
+        addSortKey(document, "name", dog.getName());
+        addSortKey(document, "breed", dog.getBreed());
+        if (dog.getAge() != null) {
+            document.add(new NumericDocValuesField("age" + SORT_SUFFIX, dog.getAge()));
+        }
+        if (dog.getWeight() != null) {
+            document.add(new DoubleDocValuesField("weight" + SORT_SUFFIX, dog.getWeight()));
+        }
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addSortKey(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new SortedDocValuesField(field + SORT_SUFFIX, new BytesRef(value.toLowerCase(Locale.ROOT))));
+        }
+    }
+
+    // Every analyzed word must match in some field, the last one may be incomplete; filters
+    // narrow the matches without affecting their scores
+    private Query buildQuery(DogSearchCriteria criteria) {
+        List<String> words = analyze(criteria.getSearch());
+        if (words.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        SafetyLevel prediction = criteria.predictionLevel();
+        if (prediction != null) {
+            query.add(new TermQuery(new Term(PREDICTION, prediction.name())), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.hasBreed()) {
+            query.add(new TermQuery(new Term(BREED_EXACT, criteria.getBreed())), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getMinAge() != null || criteria.getMaxAge() != null) {
+            query.add(IntPoint.newRangeQuery(AGE,
+                    criteria.getMinAge() != null ? criteria.getMinAge() : Integer.MIN_VALUE,
+                    criteria.getMaxAge() != null ? criteria.getMaxAge() : Integer.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getMinWeight() != null || criteria.getMaxWeight() != null) {
+            query.add(DoublePoint.newRangeQuery(WEIGHT,
+                    criteria.getMinWeight() != null ? criteria.getMinWeight() : Double.NEGATIVE_INFINITY,
+                    criteria.getMaxWeight() != null ? criteria.getMaxWeight() : Double.POSITIVE_INFINITY), BooleanClause.Occur.FILTER);
+        }
+        for (int i = 0; i < words.size(); i++) {
+            boolean last = i == words.size() - 1;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            for (Map.Entry<String, Float> field : TEXT_FIELDS.entrySet()) {
+                Term term = new Term(field.getKey(), words.get(i));
+                anyField.add(new BoostQuery(new TermQuery(term), field.getValue()), BooleanClause.Occur.SHOULD);
+                if (last) {
+                    // A completed word outranks a word that merely starts with it
+                    anyField.add(new BoostQuery(new PrefixQuery(term), field.getValue() / 2), BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream("name", text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static Sort toSort(org.springframework.data.domain.Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        for (org.springframework.data.domain.Sort.Order order : sort) {
+            SortField.Type type = SORT_FIELDS.get(order.getProperty());
+            if (type != null) {
+                fields.add(new SortField(order.getProperty() + SORT_SUFFIX, type, order.isDescending()));
+            }
+        }
+        if (fields.isEmpty()) {
+            return null;
+        }
+        // Relevance, then id, break ties so pages do not overlap
+        fields.add(SortField.FIELD_SCORE);
+        fields.add(new SortField("id" + SORT_SUFFIX, SortField.Type.LONG));
+        return new Sort(fields.toArray(new SortField[0]));
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.PredictionJob;
+import com.example.springdogs.prediction.OpenAiCircuitBreaker;
+import com.example.springdogs.prediction.PredictionPrompts;
+import com.example.springdogs.prediction.TokenBucket;
+import com.example.springdogs.repository.DogRepository;
+import com.example.springdogs.repository.PredictionJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Re-scores every dog, e.g. after the prompt or model changed. One job runs at a time on its own
+ * threads: dogs are read a page at a time by id, predicted by at most {@code parallelism} workers
+ * paced to the job's own requests-per-minute budget, and the checkpoint is saved after each page
+ * so the job resumes where it stopped after a pause, a failure or a restart. Every database call
+ * is a short transaction holding one connection, so live API reads are not starved.
+ */
+@Service
+public class BulkPredictionService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkPredictionService.class);
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private PredictionJobRepository jobRepository;
+
+    @Autowired
+    private ChatGptService chatGptService;
+
+    @Autowired
+    private DogPredictionWorker dogPredictionWorker;
+
+    @Autowired
+    private OpenAiCircuitBreaker circuitBreaker;
+
+    @Value("${app.prediction.rescore.page-size:50}")
+    private int pageSize;
+
+    @Value("${app.prediction.rescore.parallelism:2}")
+    private int defaultParallelism;
+
+    @Value("${app.prediction.rescore.max-parallelism:8}")
+    private int maxParallelism;
+
+    @Value("${app.prediction.rescore.requests-per-minute:60}")
+    private int defaultRequestsPerMinute;
+
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(daemonThreads("prediction-rescore-"));
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock; read without it only for reporting
+    private volatile Long activeJobId;
+    private volatile PredictionJob.Status stopRequested;
+    private volatile long runStartedNanos;
+    private volatile long processedAtRunStart;
+
+    public Map<String, Object> start(Integer parallelism, Integer requestsPerMinute) {
+        int workers = parallelism != null ? parallelism : defaultParallelism;
+        int perMinute = requestsPerMinute != null ? requestsPerMinute : defaultRequestsPerMinute;
+        if (workers < 1 || workers > maxParallelism) {
+            throw new IllegalArgumentException("parallelism must be between 1 and " + maxParallelism);
+        }
+        if (perMinute < 1) {
+            throw new IllegalArgumentException("requestsPerMinute must be positive");
+        }
+
+        lock.lock();
+        try {
+            if (activeJobId != null) {
+                throw new IllegalStateException("Re-prediction job " + activeJobId + " is already running");
+            }
+            PredictionJob job = new PredictionJob();
+            job.setStatus(PredictionJob.Status.RUNNING);
+            job.setTotal(dogRepository.count());
+            job.setParallelism(workers);
+            job.setRequestsPerMinute(perMinute);
+            job.setPredictionVersion(PredictionPrompts.VERSION);
+            job = jobRepository.save(job);
+            launch(job);
+            return progressOf(job);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the running job after its current page; {@link #resume()} continues from there.
+     */
+    public Optional<Map<String, Object>> pause() {
+        return stopActive(PredictionJob.Status.PAUSED);
+    }
+
+    public Optional<Map<String, Object>> resume() {
+        lock.lock();
+        try {
+            if (activeJobId != null) {
+                // Paused but still finishing its page: just keep going
+                if (stopRequested == PredictionJob.Status.PAUSED) {
+                    stopRequested = null;
+                }
+                return getProgress();
+            }
+            return latestResumable().map(job -> {
+                job.setStatus(PredictionJob.Status.RUNNING);
+                job.setLastError(null);
+                PredictionJob saved = jobRepository.save(job);
+                launch(saved);
+                return progressOf(saved);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Map<String, Object>> cancel() {
+        lock.lock();
+        try {
+            if (activeJobId != null) {
+                return stopActive(PredictionJob.Status.CANCELLED);
+            }
+            return latestResumable().map(job -> {
+                job.setStatus(PredictionJob.Status.CANCELLED);
+                job.setFinishedAt(LocalDateTime.now());
+                return progressOf(jobRepository.save(job));
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<Map<String, Object>> getProgress() {
+        return jobRepository.findFirstByOrderByIdDesc().map(this::progressOf);
+    }
+
+    /**
+     * A job still marked running was interrupted by a shutdown; pick it up from its checkpoint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJob() {
+        lock.lock();
+        try {
+            if (activeJobId == null) {
+                jobRepository.findFirstByStatusOrderByIdDesc(PredictionJob.Status.RUNNING).ifPresent(job -> {
+                    logger.info("Resuming re-prediction job {} after dog {}", job.getId(), job.getLastDogId());
+                    launch(job);
+                });
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Interrupted jobs stay RUNNING in the database and resume on the next start
+        coordinator.shutdownNow();
+    }
+
+    private Optional<Map<String, Object>> stopActive(PredictionJob.Status status) {
+        lock.lock();
+        try {
+            if (activeJobId == null) {
+                return Optional.empty();
+            }
+            stopRequested = status;
+            return getProgress();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<PredictionJob> latestResumable() {
+        return jobRepository.findFirstByOrderByIdDesc()
+                .filter(job -> job.getStatus() == PredictionJob.Status.PAUSED
+                        || job.getStatus() == PredictionJob.Status.FAILED);
+    }
+
+    private void launch(PredictionJob job) {
+        activeJobId = job.getId();
+        stopRequested = null;
+        runStartedNanos = System.nanoTime();
+        processedAtRunStart = job.getProcessed();
+        coordinator.execute(() -> run(job));
+    }
+
+    private void run(PredictionJob job) {
+        ExecutorService workers = Executors.newFixedThreadPool(job.getParallelism(), daemonThreads("prediction-rescore-worker-"));
+        TokenBucket pacing = new TokenBucket(job.getRequestsPerMinute(), System.nanoTime());
+        // Start empty so the job ramps up at its configured rate instead of opening with a burst
+        pacing.drain(System.nanoTime());
+        try {
+            while (!stopIfRequested(job)) {
+                if (circuitBreaker.getState() == OpenAiCircuitBreaker.State.OPEN) {
+                    finish(job, PredictionJob.Status.PAUSED, "Paused while the OpenAI circuit breaker is open");
+                    return;
+                }
+                List<Dog> page = dogRepository.findByIdGreaterThanOrderByIdAsc(job.getLastDogId(), PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    finish(job, PredictionJob.Status.COMPLETED, null);
+                    return;
+                }
+                job = rescorePage(job, page, workers, pacing);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            activeJobId = null;
+        } catch (Exception e) {
+            logger.error("Re-prediction job {} failed after dog {}", job.getId(), job.getLastDogId(), e);
+            finish(job, PredictionJob.Status.FAILED, e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private PredictionJob rescorePage(PredictionJob job, List<Dog> page, ExecutorService workers, TokenBucket pacing)
+            throws InterruptedException {
+        // Dogs already predicted from their current fields by this prompt and model are skipped,
+        // e.g. those re-saved since the job started or done by an earlier run of it
+        List<Dog> stale = page.stream()
+                .filter(dog -> !DogPredictionWorker.isPredictionCurrent(dog,
+                        DogPredictionWorker.fingerprint(ChatGptDogDto.from(dog))))
+                .toList();
+        List<ChatGptDogDto> dogs = stale.stream().map(ChatGptDogDto::from).toList();
+        List<Future<Optional<SafetyPrediction>>> predictions = new ArrayList<>(dogs.size());
+        for (ChatGptDogDto dog : dogs) {
+            awaitPermit(pacing);
+            predictions.add(workers.submit(() -> chatGptService.refreshDogSafety(dog)));
+        }
+
+        long failed = 0;
+        for (int i = 0; i < stale.size(); i++) {
+            Optional<SafetyPrediction> prediction = resultOf(predictions.get(i), stale.get(i).getId());
+            if (prediction.isPresent()) {
+                dogPredictionWorker.apply(stale.get(i).getId(), dogs.get(i), prediction.get());
+            } else {
+                // Keep the dog's current prediction rather than overwrite it with an error
+                failed++;
+            }
+        }
+
+        job.setLastDogId(page.get(page.size() - 1).getId());
+        job.setProcessed(job.getProcessed() + page.size());
+        job.setFailed(job.getFailed() + failed);
+        return jobRepository.save(job);
+    }
+
+    private boolean stopIfRequested(PredictionJob job) {
+        lock.lock();
+        try {
+            if (stopRequested == null) {
+                return false;
+            }
+            finish(job, stopRequested, null);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finish(PredictionJob job, PredictionJob.Status status, String error) {
+        lock.lock();
+        try {
+            job.setStatus(status);
+            job.setLastError(error);
+            if (status != PredictionJob.Status.PAUSED) {
+                job.setFinishedAt(LocalDateTime.now());
+            }
+            jobRepository.save(job);
+            logger.info("Re-prediction job {} {} after {} of {} dogs ({} failed)",
+                    job.getId(), status, job.getProcessed(), job.getTotal(), job.getFailed());
+        } finally {
+            activeJobId = null;
+            stopRequested = null;
+            lock.unlock();
+        }
+    }
+
+    private static Optional<SafetyPrediction> resultOf(Future<Optional<SafetyPrediction>> prediction, Long dogId)
+            throws InterruptedException {
+        try {
+            return prediction.get();
+        } catch (ExecutionException e) {
+            logger.warn("Re-prediction failed for dog {}", dogId, e.getCause());
+            return Optional.empty();
+        }
+    }
+
+    private static void awaitPermit(TokenBucket pacing) throws InterruptedException {
+        long wait = pacing.nanosUntilAvailable(1, System.nanoTime());
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        pacing.take(1, System.nanoTime());
+    }
+
+    private Map<String, Object> progressOf(PredictionJob job) {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("id", job.getId());
+        progress.put("status", job.getStatus());
+        progress.put("predictionVersion", job.getPredictionVersion());
+        progress.put("processed", job.getProcessed());
+        progress.put("failed", job.getFailed());
+        progress.put("total", job.getTotal());
+        progress.put("lastDogId", job.getLastDogId());
+        progress.put("parallelism", job.getParallelism());
+        progress.put("requestsPerMinute", job.getRequestsPerMinute());
+        progress.put("createdAt", job.getCreatedAt());
+        progress.put("updatedAt", job.getUpdatedAt());
+        progress.put("finishedAt", job.getFinishedAt());
+        progress.put("lastError", job.getLastError());
+        if (job.getId().equals(activeJobId)) {
+            // Rate over this run only, so time spent paused doesn't drag the ETA out
+            double minutes = (System.nanoTime() - runStartedNanos) / 60_000_000_000.0;
+            double perMinute = minutes > 0 ? (job.getProcessed() - processedAtRunStart) / minutes : 0;
+            long remaining = Math.max(0, job.getTotal() - job.getProcessed());
+            progress.put("throughputPerMinute", Math.round(perMinute * 10) / 10.0);
+            progress.put("etaSeconds", perMinute > 0 ? Math.round(remaining / perMinute * 60) : null);
+        }
+        return progress;
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -1,137 +1,324 @@
 package com.example.springdogs.service;
 
-import com.example.springdogs.dto.ChatGptRequest;
-import com.example.springdogs.dto.ChatGptResponse;
 import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.PredictionStreamEvent;
 import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.prediction.OpenAiCircuitBreaker;
+import com.example.springdogs.prediction.OpenAiClient;
+import com.example.springdogs.prediction.OpenAiThrottledException;
+import com.example.springdogs.prediction.PredictionBatcher;
+import com.example.springdogs.prediction.PredictionCache;
+import com.example.springdogs.prediction.PredictionHedger;
+import com.example.springdogs.prediction.PredictionKey;
+import com.example.springdogs.prediction.PredictionPrompts;
+import com.example.springdogs.prediction.RulePrescreen;
+import com.example.springdogs.prediction.SingleFlight;
+import com.example.springdogs.prediction.StreamingPredictionParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.concurrent.TimeoutException;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class ChatGptService {
     
-    private final WebClient webClient;
+    static final String DEFAULT_FALLBACK_VERDICT = "Error";
+    static final String DEFAULT_FALLBACK_EXPLANATION =
+        "Safety prediction service is temporarily unavailable. Save the dog again later to retry.";
+    
+    private final OpenAiClient openAiClient;
     private final ObjectMapper objectMapper;
-    private final String apiKey;
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
-    
-    // Simple cache to avoid duplicate API calls
-    private final Map<String, SafetyPrediction> cache = new ConcurrentHashMap<>();
-    
-    public ChatGptService(@Value("${app.openaiApiKey}") String apiKey) {
-        this.apiKey = apiKey;
-        this.webClient = WebClient.builder()
-                .defaultHeader("Authorization", "Bearer " + apiKey)
-                .defaultHeader("Content-Type", "application/json")
-                .build();
+    
+    // Bounded cache to avoid duplicate API calls
+    private final PredictionCache cache;
+    
+    // Identical dogs requested concurrently share a single outstanding API call
+    private final SingleFlight<PredictionKey, SafetyPrediction> inFlight = new SingleFlight<>();
+    
+    // Optional stage that folds concurrent predictions into one multi-dog prompt
+    private final PredictionBatcher batcher;
+    
+    // Answers dogs that clearly match the prompt's YES/NO rules without calling OpenAI
+    private final RulePrescreen prescreen;
+    
+    // Fails fast with the fallback prediction while OpenAI is down
+    private final OpenAiCircuitBreaker circuitBreaker;
+    private final SafetyPrediction fallback;
+    
+    // Sends a second request when the first is slower than recent calls usually are
+    private final PredictionHedger hedger;
+    
+    public ChatGptService(String apiKey) {
+        this(new OpenAiClient(apiKey));
+    }
+    
+    public ChatGptService(OpenAiClient openAiClient) {
+        this(openAiClient, new PredictionCache(), PredictionBatcher.disabled(), new RulePrescreen(),
+            new OpenAiCircuitBreaker(), PredictionHedger.disabled(), DEFAULT_FALLBACK_VERDICT, DEFAULT_FALLBACK_EXPLANATION);
+    }
+    
+    @Autowired
+    public ChatGptService(OpenAiClient openAiClient, PredictionCache cache, PredictionBatcher batcher,
+                          RulePrescreen prescreen, OpenAiCircuitBreaker circuitBreaker, PredictionHedger hedger,
+                          @Value("${app.prediction.fallback.is-safe-to-pet:" + DEFAULT_FALLBACK_VERDICT + "}") String fallbackVerdict,
+                          @Value("${app.prediction.fallback.explanation:" + DEFAULT_FALLBACK_EXPLANATION + "}") String fallbackExplanation) {
+        this.openAiClient = openAiClient;
+        this.cache = cache;
+        this.batcher = batcher;
+        this.prescreen = prescreen;
+        this.circuitBreaker = circuitBreaker;
+        this.hedger = hedger;
+        this.fallback = new SafetyPrediction(SafetyLevel.fromLabel(fallbackVerdict), fallbackExplanation);
         this.objectMapper = new ObjectMapper();
     }
     
     public SafetyPrediction predictDogSafety(ChatGptDogDto dogDto) {
+        SafetyPrediction screened = prescreen.screen(dogDto);
+        if (screened != null) {
+            return screened;
+        }
+        
+        // Check cache first to avoid repeated API calls
+        PredictionKey key = PredictionKey.of(dogDto);
+        SafetyPrediction cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        return inFlight.execute(key, () -> requestPrediction(key, dogDto));
+    }
+    
+    /**
+     * Like {@link #predictDogSafety} but always asks OpenAI rather than answering from the cache,
+     * for re-scoring dogs after the prompt or model changed. The fresh result replaces the cached
+     * one; empty when OpenAI could not be reached, so callers keep whatever prediction they had.
+     */
+    public Optional<SafetyPrediction> refreshDogSafety(ChatGptDogDto dogDto) {
+        SafetyPrediction screened = prescreen.screen(dogDto);
+        if (screened != null) {
+            return Optional.of(screened);
+        }
+        
+        PredictionKey key = PredictionKey.of(dogDto);
+        SafetyPrediction result = inFlight.execute(key, () -> callApi(key, dogDto));
+        return isFailure(result) ? Optional.empty() : Optional.of(result);
+    }
+    
+    /**
+     * @return whether the prediction reports that none was made: an error, including an
+     * unusable answer, or the configured fallback served while the circuit is open
+     */
+    public boolean isFailure(SafetyPrediction prediction) {
+        return prediction.getIsSafeToPet() == SafetyLevel.ERROR || prediction.equals(fallback);
+    }
+    
+    /**
+     * Streaming variant of {@link #predictDogSafety}: relays the verdict and explanation as the
+     * model generates them. Predictions that are already known (pre-screen, cache, a call in
+     * flight for the same dog, or an open circuit) are emitted whole.
+     */
+    public Flux<PredictionStreamEvent> streamDogSafety(ChatGptDogDto dogDto) {
+        SafetyPrediction known = prescreen.screen(dogDto);
+        PredictionKey key = PredictionKey.of(dogDto);
+        if (known == null) {
+            known = cache.get(key);
+        }
+        if (known == null) {
+            known = cache.getRecentFailure(key);
+        }
+        if (known != null) {
+            return whole(known);
+        }
+        
+        SingleFlight.Flight<SafetyPrediction> flight = inFlight.lead(key);
+        if (!flight.leader()) {
+            return Mono.fromFuture(flight.result()).flatMapMany(ChatGptService::whole);
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            flight.result().complete(fallback);
+            return whole(fallback);
+        }
+        
+        String dogJson;
         try {
-            String dogJson = objectMapper.writeValueAsString(dogDto);
-            
-            // Check cache first to avoid repeated API calls
-            if (cache.containsKey(dogJson)) {
-                return cache.get(dogJson);
-            }
-            
-            String prompt = String.format(
-                "Analyze this dog data for petting safety. You MUST respond with exactly one of these four words: " +
-                "YES (clearly safe/friendly), NO (clearly dangerous/aggressive), CAUTIOUSLY (requires caution), ERROR (invalid data).\n\n" +
-                "Rules:\n" +
-                "- If dog shows obvious signs of friendliness, therapy work, gentle temperament = YES\n" + 
-                "- If dog shows obvious signs of aggression, biting history, dangerous behavior = NO\n" +
-                "- If uncertain or mixed signals = CAUTIOUSLY\n" +
-                "- If nonsensical breed/age/weight = ERROR\n\n" +
-                "Respond with the word only, then new line, then brief explanation.\n\n" +
-                "Dog data:%s", dogJson
-            );
-            
-            ChatGptRequest request = new ChatGptRequest();
-            request.setModel("gpt-3.5-turbo");
-            request.setMessages(List.of(new ChatGptRequest.Message("user", prompt)));
-	        request.setTemperature(0.1);
-            request.setMax_tokens(210);
-
-            ChatGptResponse response = webClient.post()
-                    .uri(OPENAI_API_URL)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(ChatGptResponse.class)
-                    .timeout(java.time.Duration.ofSeconds(30))
-                    .block();
-
-            if (response == null || response.getChoices() == null ||
-                response.getChoices().length == 0) {
-                return new SafetyPrediction("Error", "API call failed - no response received");
+            dogJson = objectMapper.writeValueAsString(dogDto);
+        } catch (JsonProcessingException e) {
+            circuitBreaker.releasePermission();
+            SafetyPrediction error = new SafetyPrediction(SafetyLevel.ERROR, "Technical error occurred: " + e.getMessage());
+            flight.result().complete(error);
+            return whole(error);
+        }
+        
+        StreamingPredictionParser parser = new StreamingPredictionParser();
+        Flux<PredictionStreamEvent> events = openAiClient.stream(PredictionPrompts.singleDog(dogJson), PredictionPrompts.MAX_TOKENS_PER_DOG)
+            .concatMapIterable(parser::accept)
+            .concatWith(Flux.defer(() -> {
+                SafetyPrediction result = parser.getResult();
+                circuitBreaker.onSuccess();
+                cache.put(key, result);
+                flight.result().complete(result);
+                return Flux.fromIterable(parser.finish());
+            }))
+            .onErrorResume(e -> {
+                circuitBreaker.onFailure();
+                SafetyPrediction failure = rememberFailure(key, failureFor(e));
+                flight.result().complete(failure);
+                return whole(failure);
+            })
+            .cache();
+        // Started here rather than by the client's subscription, and replayed to it: the call
+        // completes for anyone coalesced onto it, and is cached, even if the client disconnects
+        events.subscribe();
+        return events;
+    }
+    
+    private static Flux<PredictionStreamEvent> whole(SafetyPrediction prediction) {
+        return Flux.just(
+            PredictionStreamEvent.verdict(prediction.getIsSafeToPet()),
+            PredictionStreamEvent.explanation(prediction.getSafetyExplanation()),
+            PredictionStreamEvent.done(prediction));
+    }
+    
+    public Map<String, Long> getRequestStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("apiCalls", inFlight.executedCount());
+        stats.put("coalesced", inFlight.coalescedCount());
+        stats.put("inFlight", (long) inFlight.inFlight());
+        if (batcher.isEnabled()) {
+            stats.putAll(batcher.getStats());
+        }
+        return stats;
+    }
+    
+    private SafetyPrediction requestPrediction(PredictionKey key, ChatGptDogDto dogDto) {
+        // A previous call for the same dog may have completed between our cache miss
+        // and becoming the leader for this key
+        SafetyPrediction cached = cache.getQuietly(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // The same dog failed moments ago; don't send it straight back to a failing API
+        SafetyPrediction recentFailure = cache.getRecentFailure(key);
+        if (recentFailure != null) {
+            return recentFailure;
+        }
+        
+        return callApi(key, dogDto);
+    }
+    
+    private SafetyPrediction callApi(PredictionKey key, ChatGptDogDto dogDto) {
+        // Only a dog that actually goes to the API needs serializing for the prompt
+        String dogJson;
+        try {
+            dogJson = objectMapper.writeValueAsString(dogDto);
+        } catch (JsonProcessingException e) {
+            return new SafetyPrediction(SafetyLevel.ERROR,
+                "Technical error occurred: " + e.getMessage());
+        }
+        
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return fallback;
+        }
+        
+        SafetyPrediction result;
+        try {
+            result = batcher.isEnabled() ? awaitBatch(batcher.submit(dogJson)) : null;
+            if (result == null) {
+                // Not batched, or the batched answer for this dog was unusable
+                result = requestSinglePrediction(dogJson);
             }
-
-            String content = response.getChoices()[0].getMessage().getContent();
-            SafetyPrediction result = parseSafetyResponse(content);
-            
-            // Cache the result for future identical requests
-            cache.put(dogJson, result);
-            return result;
-
-        } catch (org.springframework.web.reactive.function.client.WebClientResponseException.TooManyRequests e) {
-            // Rate limit exceeded - return a conservative prediction
-            return new SafetyPrediction("Cautiously", 
-                "Rate limit exceeded. Please wait before making more requests. Prediction based on breed: " + dogDto.getBreed());
         } catch (Exception e) {
-            return new SafetyPrediction("Error",
-                "Technical error occurred: " + e.getMessage());
+            circuitBreaker.onFailure();
+            return rememberFailure(key, failureFor(e));
+        }
+        
+        circuitBreaker.onSuccess();
+        // Cache the result for future identical requests
+        cache.put(key, result);
+        return result;
+    }
+    
+    private static SafetyPrediction failureFor(Throwable e) {
+        if (e instanceof WebClientResponseException.TooManyRequests || e instanceof OpenAiThrottledException) {
+            // Still rate limited after queueing and retrying; report it rather than guess a verdict
+            return new SafetyPrediction(SafetyLevel.ERROR,
+                "OpenAI rate limit persisted after retries; no prediction was made. Save the dog again to retry.");
+        }
+        return new SafetyPrediction(SafetyLevel.ERROR, "Technical error occurred: " + e.getMessage());
+    }
+    
+    private SafetyPrediction rememberFailure(PredictionKey key, SafetyPrediction failure) {
+        cache.putFailure(key, failure);
+        return failure;
+    }
+    
+    private SafetyPrediction requestSinglePrediction(String dogJson) {
+        String prompt = PredictionPrompts.singleDog(dogJson);
+        String content = hedger.execute(() -> openAiClient.complete(prompt, PredictionPrompts.MAX_TOKENS_PER_DOG));
+        if (content == null) {
+            return new SafetyPrediction(SafetyLevel.ERROR, "API call failed - no response received");
+        }
+        return parseSafetyResponse(content);
+    }
+    
+    private SafetyPrediction awaitBatch(CompletableFuture<SafetyPrediction> batchResult) {
+        try {
+            return batchResult.join();
+        } catch (CompletionException e) {
+            // Surface the batch request's own failure (e.g. rate limiting) to the handlers above
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
     
     public SafetyPrediction parseSafetyResponse(String content) {
         try {
-            String[] lines = content.split("\\n");
-            String predictionRaw = lines[0].trim();
-            
-            // Normalize prediction to proper case (ChatGPT might return YES/NO/all caps)
-            String prediction = normalizePrediction(predictionRaw);
+            // Verdict word on the first line (ChatGPT might return YES/NO/all caps), explanation on the second
+            int newline = content.indexOf('\n');
+            int verdictEnd = newline >= 0 ? newline : content.length();
+            SafetyLevel prediction = SafetyLevel.parseVerdict(content, 0, verdictEnd);
             
             // Validate prediction
-            if (!prediction.equals("Yes") && !prediction.equals("No") && 
-                !prediction.equals("Cautiously") && !prediction.equals("Error")) {
-                return new SafetyPrediction("Error", 
-                    "Invalid prediction format from ChatGPT: " + predictionRaw);
+            if (prediction == null) {
+                return new SafetyPrediction(SafetyLevel.ERROR, 
+                    "Invalid prediction format from ChatGPT: " + content.substring(0, verdictEnd).trim());
             }
             
-            String explanation = lines.length > 1 ? lines[1].trim() : "No explanation provided";
+            String explanation = "No explanation provided";
+            if (newline >= 0 && hasTextAfter(content, newline)) {
+                int explanationEnd = content.indexOf('\n', newline + 1);
+                explanation = content.substring(newline + 1, explanationEnd >= 0 ? explanationEnd : content.length()).trim();
+            }
             
             return new SafetyPrediction(prediction, explanation);
             
         } catch (Exception e) {
-            return new SafetyPrediction("Error", 
+            return new SafetyPrediction(SafetyLevel.ERROR, 
                 "Failed to parse ChatGPT response: " + e.getMessage());
         }
     }
     
-    private String normalizePrediction(String rawPrediction) {
-        String normalized = rawPrediction.toLowerCase().trim();
-        
-        // Handle various forms ChatGPT might return
-        if (normalized.equals("yes") || normalized.equals("y")) {
-            return "Yes";
-        } else if (normalized.equals("no") || normalized.equals("n")) {
-            return "No";  
-        } else if (normalized.equals("cautiously") || normalized.equals("caution")) {
-            return "Cautiously";
-        } else if (normalized.equals("error")) {
-            return "Error";
-        } else {
-            // Return original if no match (will be caught by validation)
-            return rawPrediction;
+    // Whether anything other than line breaks follows the first line
+    private static boolean hasTextAfter(String content, int newline) {
+        for (int i = newline + 1; i < content.length(); i++) {
+            if (content.charAt(i) != '\n') {
+                return true;
+            }
         }
+        return false;
     }
 }
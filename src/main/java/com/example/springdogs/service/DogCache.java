@@ -0,0 +1,130 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of dog details by id. Entries are dropped as soon as a
+ * {@link DogChangedEvent} commits; the TTL only bounds how long a row changed outside the
+ * application can be served. Cached DTOs are shared between callers and must not be modified.
+ */
+@Component
+public class DogCache implements MeterBinder {
+
+    private static final int STRIPES = 1024;
+
+    private final Cache<Long, DogDto> cache;
+    private final long maxSize;
+    private final LongAdder invalidations = new LongAdder();
+
+    // Bumped by every invalidation of an id in the stripe, so a load can tell it may be stale
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    @Autowired
+    public DogCache(@Value("${app.dogs.cache.max-size:10000}") long maxSize,
+                    @Value("${app.dogs.cache.ttl:1h}") Duration ttl) {
+        this(maxSize, ttl, ForkJoinPool.commonPool());
+    }
+
+    DogCache(long maxSize, Duration ttl, Executor maintenanceExecutor) {
+        this.maxSize = maxSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(maintenanceExecutor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The cached dog, or the loader's result, which is cached unless null. The loader runs
+     * outside Caffeine's per-key lock, so a virtual thread waiting on the database does not pin
+     * its carrier; concurrent misses for the same id may each load. A load overlapped by an
+     * invalidation of the same id is returned but not kept, so a row read before a change
+     * committed cannot outlive the change.
+     */
+    public DogDto get(Long id, Function<Long, DogDto> loader) {
+        DogDto cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(id);
+        long stamp = stamps.get(stripe);
+        DogDto loaded = loader.apply(id);
+        if (loaded != null && stamps.get(stripe) == stamp) {
+            cache.put(id, loaded);
+            // An invalidation between the check and the put would otherwise miss the entry
+            if (stamps.get(stripe) != stamp) {
+                cache.asMap().remove(id, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * The cached dog, or null; does not load and does not count towards hit/miss statistics.
+     */
+    public DogDto getIfPresent(Long id) {
+        return cache.policy().getIfPresentQuietly(id);
+    }
+
+    public void invalidate(Long id) {
+        // Bumped before the entry is dropped, so a load that puts after the drop sees it
+        stamps.incrementAndGet(stripe(id));
+        cache.invalidate(id);
+        invalidations.increment();
+    }
+
+    // Runs before the generation bump, per DogDataGeneration#onDogChanged
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDogChanged(DogChangedEvent event) {
+        invalidate(event.dogId());
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (STRIPES - 1);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maxSize", maxSize);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("invalidations", invalidations.sum());
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "dogs");
+        FunctionCounter.builder("dogs.cache.invalidations", invalidations, LongAdder::sum)
+                .description("Cached dogs dropped because the dog changed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.springdogs.service;
+
+/**
+ * Published inside the transaction that created, updated or deleted a dog. Listeners that
+ * mirror dog data (the search index) re-read the dog once the transaction has committed.
+ */
+public record DogChangedEvent(Long dogId) {
+}
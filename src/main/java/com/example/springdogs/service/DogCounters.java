@@ -0,0 +1,142 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.repository.DogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dog counts per breed and prediction, for listing totals that do not need to be exact. The
+ * counts are taken with one grouped query and retaken at most once per {@code max-staleness}
+ * after a {@link DogChangedEvent}, so a busy listing pays for one count per interval instead of
+ * one per request. The first read past the interval starts the recount on a background thread
+ * and, like every read until it finishes, is answered from the previous counts.
+ */
+@Component
+public class DogCounters implements DisposableBean {
+
+    private record Snapshot(long total, Map<SafetyLevel, Long> byPrediction,
+                            Map<String, Map<SafetyLevel, Long>> byBreed) {
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(DogCounters.class);
+
+    private final DogRepository dogRepository;
+    private final long maxStalenessNanos;
+
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), Map.of());
+    private volatile long takenAt;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(refresherThreads());
+
+    @Autowired
+    public DogCounters(DogRepository dogRepository,
+                       @Value("${app.dogs.counters.max-staleness:5s}") Duration maxStaleness) {
+        this.dogRepository = dogRepository;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    /**
+     * Approximately how many dogs match the criteria, or null when the criteria include a search
+     * term or an age or weight range, which the counters do not track.
+     *
+     * @throws IllegalArgumentException if the prediction filter is not a known prediction
+     */
+    public Long approximateTotal(DogSearchCriteria criteria) {
+        if (criteria.hasSearch() || criteria.getMinAge() != null || criteria.getMaxAge() != null
+                || criteria.getMinWeight() != null || criteria.getMaxWeight() != null) {
+            return null;
+        }
+        SafetyLevel prediction = criteria.predictionLevel();
+        if (stale.get() && System.nanoTime() - takenAt >= maxStalenessNanos && refreshing.compareAndSet(false, true)) {
+            refreshInBackground();
+        }
+        Snapshot counts = snapshot;
+        if (criteria.hasBreed()) {
+            Map<SafetyLevel, Long> breed = counts.byBreed().getOrDefault(criteria.getBreed(), Map.of());
+            return prediction == null
+                    ? breed.values().stream().mapToLong(Long::longValue).sum()
+                    : breed.getOrDefault(prediction, 0L);
+        }
+        return prediction == null ? counts.total() : counts.byPrediction().getOrDefault(prediction, 0L);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDogChanged(DogChangedEvent event) {
+        stale.set(true);
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    // Left stale, so a later read tries again
+                    stale.set(true);
+                    logger.warn("Could not recount dogs", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            refreshing.set(false);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Recounts now. Runs at startup; afterwards reads start a background recount when changes are pending.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        // Cleared first so a change committed during the count marks the new counts stale
+        stale.set(false);
+        takenAt = System.nanoTime();
+        long total = 0;
+        Map<SafetyLevel, Long> byPrediction = new HashMap<>();
+        Map<String, Map<SafetyLevel, Long>> byBreed = new HashMap<>();
+        List<Object[]> rows = dogRepository.countByBreedAndPrediction();
+        for (Object[] row : rows) {
+            String breed = (String) row[0];
+            SafetyLevel prediction = (SafetyLevel) row[1];
+            long dogs = ((Number) row[2]).longValue();
+            total += dogs;
+            if (prediction != null) {
+                byPrediction.merge(prediction, dogs, Long::sum);
+            }
+            byBreed.computeIfAbsent(breed, b -> new HashMap<>()).merge(prediction, dogs, Long::sum);
+        }
+        snapshot = new Snapshot(total, byPrediction, byBreed);
+    }
+
+    private static CustomizableThreadFactory refresherThreads() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("dog-counters-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.repository.DogSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Position in a keyset-paginated dog listing: the sort key and direction, and the sort value
+ * and id of the last dog returned. Clients see it only as the opaque token from
+ * {@link #encode()}; the first page has no last dog.
+ */
+public record DogCursor(String sortKey, boolean descending, String lastValue, Long lastId) {
+
+    // Non-null columns only, so every dog has a place in the order
+    public static final Set<String> SORT_KEYS = Set.of("id", "name", "breed", "age");
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * @throws IllegalArgumentException if the sort key is not one of {@link #SORT_KEYS}
+     */
+    public static DogCursor first(String sortKey, boolean descending) {
+        if (!SORT_KEYS.contains(sortKey)) {
+            throw new IllegalArgumentException("Cannot scroll by '" + sortKey + "'; use one of " + SORT_KEYS);
+        }
+        return new DogCursor(sortKey, descending, null, null);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static DogCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // sortKey:direction:lastId:lastValue, the value last since it may contain the separator
+            String[] parts = decoded.split(String.valueOf(SEPARATOR), 4);
+            if (parts.length != 4 || !SORT_KEYS.contains(parts[0]) || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            DogCursor cursor = new DogCursor(parts[0], parts[1].equals("desc"), parts[3], Long.valueOf(parts[2]));
+            if (cursor.sortKey.equals("age")) {
+                Integer.parseInt(cursor.lastValue);
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and numbers
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    /**
+     * The cursor for the page that follows {@code last}.
+     */
+    public DogCursor after(Dog last) {
+        String value = switch (sortKey) {
+            case "name" -> last.getName();
+            case "breed" -> last.getBreed();
+            case "age" -> String.valueOf(last.getAge());
+            default -> String.valueOf(last.getId());
+        };
+        return new DogCursor(sortKey, descending, value, last.getId());
+    }
+
+    /**
+     * The sort key, then id to break ties, both in the cursor's direction.
+     */
+    public Sort sort() {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return sortKey.equals("id") ? Sort.by(direction, "id") : Sort.by(direction, sortKey, "id");
+    }
+
+    /**
+     * Rows after this position; everything for the first page.
+     */
+    public Specification<Dog> seek() {
+        if (isFirst()) {
+            return Specification.where(null);
+        }
+        return switch (sortKey) {
+            case "id" -> DogSpecifications.afterId(lastId, descending);
+            case "age" -> DogSpecifications.after("age", Integer.valueOf(lastValue), lastId, descending);
+            default -> DogSpecifications.after(sortKey, lastValue, lastId, descending);
+        };
+    }
+}
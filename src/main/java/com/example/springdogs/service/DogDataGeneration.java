@@ -0,0 +1,73 @@
+package com.example.springdogs.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the dog data as a whole, bumped once every change to any dog has committed.
+ * Anything derived from the data while the generation was {@code g} is current for as long as
+ * {@link #current()} still returns {@code g}.
+ */
+@Component
+public class DogDataGeneration implements MeterBinder {
+
+    /**
+     * A generation with the time it started and a strong entity tag for it. Tags include the
+     * startup time, since generations restart from zero with every run.
+     */
+    public record Version(long generation, long changedAtMillis, String etag) {
+    }
+
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long changedAtMillis = System.currentTimeMillis();
+
+    public long current() {
+        return generation.get();
+    }
+
+    public Version version() {
+        // Time first: a bump publishes its generation before its time, so the time read here is
+        // never later than the generation's, and Last-Modified can only understate freshness
+        long changedAt = changedAtMillis;
+        long current = generation.get();
+        return new Version(current, changedAt, "\"dogs-" + runId + "-" + current + "\"");
+    }
+
+    /**
+     * Marks everything derived so far as out of date. Writes that bypass {@link DogService},
+     * such as bulk SQL, must call this themselves.
+     */
+    public long bump() {
+        long bumped = generation.incrementAndGet();
+        changedAtMillis = System.currentTimeMillis();
+        return bumped;
+    }
+
+    /**
+     * Moves to a new generation once a change commits. Listeners that keep derived state in step
+     * with the table, such as the search index and the detail cache, run at
+     * {@link Ordered#HIGHEST_PRECEDENCE} and this one at {@link Ordered#LOWEST_PRECEDENCE}, so they
+     * have finished when the generation moves on. A listing cached or validated against the new
+     * generation was therefore computed from state that includes the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onDogChanged(DogChangedEvent event) {
+        bump();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("dogs.data.generation", generation, AtomicLong::get)
+                .description("Committed dog changes since startup")
+                .register(registry);
+    }
+}
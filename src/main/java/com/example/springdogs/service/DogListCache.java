@@ -0,0 +1,144 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Results of listing and search queries, keyed by the normalized criteria and page. Each entry
+ * remembers the {@link DogDataGeneration} it was computed at and is only served while that is
+ * still the current generation, so one bump on any write invalidates every entry at once
+ * without touching them. Out-of-date entries are replaced in place by the next miss, which
+ * keeps the access frequency Caffeine has learned for popular queries.
+ */
+@Component
+public class DogListCache implements MeterBinder {
+
+    /**
+     * What a query computes, e.g. a counted page or a slice; part of the key.
+     */
+    public enum Kind {
+        PAGE, SLICE, CARDS
+    }
+
+    record Key(Kind kind, String search, SafetyLevel prediction, String breed,
+               Integer minAge, Integer maxAge, Double minWeight, Double maxWeight,
+               int page, int size, Sort sort) {
+    }
+
+    private record Entry(long generation, Object result) {
+    }
+
+    private final DogDataGeneration dataGeneration;
+    private final boolean enabled;
+    private final long maxSize;
+    private final Cache<Key, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder outdated = new LongAdder();
+
+    @Autowired
+    public DogListCache(DogDataGeneration dataGeneration,
+                        @Value("${app.dogs.list-cache.enabled:true}") boolean enabled,
+                        @Value("${app.dogs.list-cache.max-size:1000}") long maxSize) {
+        this(dataGeneration, enabled, maxSize, ForkJoinPool.commonPool());
+    }
+
+    DogListCache(DogDataGeneration dataGeneration, boolean enabled, long maxSize, Executor maintenanceExecutor) {
+        this.dataGeneration = dataGeneration;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .executor(maintenanceExecutor)
+                .build();
+    }
+
+    /**
+     * The cached result for the query if it was computed at the current data generation,
+     * otherwise the loader's result, cached for that generation.
+     *
+     * @throws IllegalArgumentException if the prediction filter is not a known prediction
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Kind kind, DogSearchCriteria criteria, Pageable pageable, Supplier<T> loader) {
+        if (!enabled || pageable.isUnpaged()) {
+            return loader.get();
+        }
+        Key key = key(kind, criteria, pageable);
+        // Read before loading, so the result is at least as new as the generation it is filed under
+        long generation = dataGeneration.current();
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null && cached.generation() == generation) {
+            hits.increment();
+            return (T) cached.result();
+        }
+        misses.increment();
+        if (cached != null) {
+            outdated.increment();
+        }
+        T result = loader.get();
+        // A slower load of an older generation must not replace a newer entry
+        cache.asMap().merge(key, new Entry(generation, result),
+                (existing, loaded) -> existing.generation() >= loaded.generation() ? existing : loaded);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("generation", dataGeneration.current());
+        result.put("size", cache.estimatedSize());
+        result.put("maxSize", maxSize);
+        result.put("hits", hitCount);
+        result.put("misses", missCount);
+        result.put("outdatedMisses", outdated.sum());
+        result.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dogs.list.cache.hits", hits, LongAdder::sum)
+                .description("Listing queries answered from the result cache")
+                .register(registry);
+        FunctionCounter.builder("dogs.list.cache.misses", misses, LongAdder::sum)
+                .description("Listing queries computed, including those whose cached result was out of date")
+                .register(registry);
+        FunctionCounter.builder("dogs.list.cache.outdated", outdated, LongAdder::sum)
+                .description("Listing queries whose cached result predated the last write")
+                .register(registry);
+        Gauge.builder("dogs.list.cache.size", cache, Cache::estimatedSize)
+                .register(registry);
+    }
+
+    static Key key(Kind kind, DogSearchCriteria criteria, Pageable pageable) {
+        // The search analyzer lowercases and splits on whitespace, so these spellings match the same dogs
+        String search = criteria.hasSearch()
+                ? criteria.getSearch().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                : null;
+        return new Key(kind, search, criteria.predictionLevel(), criteria.hasBreed() ? criteria.getBreed() : null,
+                criteria.getMinAge(), criteria.getMaxAge(), criteria.getMinWeight(), criteria.getMaxWeight(),
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+    }
+}
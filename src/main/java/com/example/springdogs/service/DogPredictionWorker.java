@@ -0,0 +1,230 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.prediction.PredictionKey;
+import com.example.springdogs.prediction.PredictionPrompts;
+import com.example.springdogs.repository.DogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills in safety predictions for dogs that were saved with a {@link SafetyLevel#PENDING}
+ * placeholder. Work runs on the bounded {@code predictionExecutor} pool so request threads
+ * return as soon as the dog is persisted. Queued work only lives in memory, so a sweep at
+ * startup and every {@code sweep-interval} reschedules dogs still pending in the database:
+ * those left by a shutdown or crash, and those whose write found the pool saturated.
+ */
+@Service
+public class DogPredictionWorker implements DisposableBean {
+
+    private static final int SWEEP_PAGE_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(DogPredictionWorker.class);
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private ChatGptService chatGptService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DogCache dogCache;
+
+    @Autowired
+    @Qualifier("predictionExecutor")
+    private TaskExecutor predictionExecutor;
+
+    @Value("${app.prediction.async.sweep-interval:1m}")
+    private Duration sweepInterval;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(sweeperThreads());
+
+    // Submitted predictions not yet finished, per dog, so the sweep does not queue them twice
+    private final Map<Long, Integer> queued = new ConcurrentHashMap<>();
+
+    public void schedule(Long dogId, ChatGptDogDto dogDto) {
+        // The worker reads the dog back, so it must not start before the row is committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(dogId, dogDto);
+                }
+            });
+        } else {
+            submit(dogId, dogDto);
+        }
+    }
+
+    /**
+     * @return false if the pool is saturated; the dog stays pending until the next sweep
+     */
+    private boolean submit(Long dogId, ChatGptDogDto dogDto) {
+        queued.merge(dogId, 1, Integer::sum);
+        try {
+            predictionExecutor.execute(() -> {
+                try {
+                    predictAndApply(dogId, dogDto);
+                } catch (Exception e) {
+                    logger.error("Background prediction failed for dog {}", dogId, e);
+                } finally {
+                    dequeue(dogId);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            dequeue(dogId);
+            logger.warn("Prediction pool is saturated; dog {} stays pending until the next sweep", dogId);
+            return false;
+        }
+    }
+
+    private void dequeue(Long dogId) {
+        queued.computeIfPresent(dogId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSweeping() {
+        sweeper.scheduleWithFixedDelay(() -> {
+            try {
+                sweepPending();
+            } catch (Exception e) {
+                logger.error("Sweep for pending predictions failed", e);
+            }
+        }, 0, sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Submits every pending dog that has no prediction queued, walking them by id. Stops at the
+     * first rejection; the next sweep starts over from the lowest id.
+     */
+    void sweepPending() {
+        long lastId = 0;
+        List<Dog> page;
+        do {
+            page = dogRepository.findByIsSafeToPetAndIdGreaterThanOrderByIdAsc(SafetyLevel.PENDING, lastId,
+                    PageRequest.of(0, SWEEP_PAGE_SIZE));
+            for (Dog dog : page) {
+                if (!queued.containsKey(dog.getId()) && !submit(dog.getId(), ChatGptDogDto.from(dog))) {
+                    return;
+                }
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == SWEEP_PAGE_SIZE);
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    void predictAndApply(Long dogId, ChatGptDogDto dogDto) {
+        apply(dogId, dogDto, chatGptService.predictDogSafety(dogDto));
+    }
+
+    /**
+     * Stores a prediction made for {@code dogDto} on the dog, unless the dog has since been
+     * deleted or its prediction-relevant fields changed. A {@link DogChangedEvent} is only
+     * published when the verdict or explanation changed, since listings, counters and the
+     * search index show nothing else of the prediction.
+     */
+    public void apply(Long dogId, ChatGptDogDto dogDto, SafetyPrediction prediction) {
+        String fingerprint = fingerprint(dogDto);
+        transactionTemplate.executeWithoutResult(status -> dogRepository.findById(dogId)
+                // Skip if the dog was deleted or edited again; the newer edit has its own prediction queued
+                .filter(dog -> fingerprint.equals(fingerprint(ChatGptDogDto.from(dog))))
+                .ifPresent(dog -> {
+                    SafetyLevel previousVerdict = dog.getIsSafeToPet();
+                    String previousExplanation = dog.getSafetyExplanation();
+                    String previousFingerprint = dog.getPredictionFingerprint();
+                    String previousVersion = dog.getPredictionVersion();
+                    applyPrediction(dog, prediction, fingerprint);
+                    boolean visible = previousVerdict != dog.getIsSafeToPet()
+                            || !Objects.equals(previousExplanation, dog.getSafetyExplanation());
+                    if (!visible && Objects.equals(previousFingerprint, dog.getPredictionFingerprint())
+                            && Objects.equals(previousVersion, dog.getPredictionVersion())) {
+                        return;
+                    }
+                    dogRepository.save(dog);
+                    if (visible) {
+                        eventPublisher.publishEvent(new DogChangedEvent(dogId));
+                    } else {
+                        // Only the bookkeeping columns and updatedAt moved; the cached detail is all that shows them
+                        evictAfterCommit(dogId);
+                    }
+                }));
+    }
+
+    private void evictAfterCommit(Long dogId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dogCache.invalidate(dogId);
+            }
+        });
+    }
+
+    static String fingerprint(ChatGptDogDto dogDto) {
+        return PredictionKey.of(dogDto).toHex();
+    }
+
+    /**
+     * @return whether the dog's stored prediction was made from fields with this fingerprint by
+     * the current prompt and model
+     */
+    static boolean isPredictionCurrent(Dog dog, String fingerprint) {
+        return fingerprint.equals(dog.getPredictionFingerprint())
+                && PredictionPrompts.VERSION.equals(dog.getPredictionVersion());
+    }
+
+    static void applyPrediction(Dog dog, SafetyPrediction prediction, String fingerprint) {
+        dog.setIsSafeToPet(prediction.getIsSafeToPet());
+        dog.setSafetyExplanation(prediction.getSafetyExplanation());
+        // Placeholders and errors are not fingerprinted, so the next save predicts again
+        boolean settled = prediction.getIsSafeToPet() != SafetyLevel.PENDING
+                && prediction.getIsSafeToPet() != SafetyLevel.ERROR;
+        dog.setPredictionFingerprint(settled ? fingerprint : null);
+        dog.setPredictionVersion(settled ? PredictionPrompts.VERSION : null);
+    }
+
+    private static CustomizableThreadFactory sweeperThreads() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("prediction-sweep-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
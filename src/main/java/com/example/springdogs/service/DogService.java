@@ -1,98 +1,361 @@
 package com.example.springdogs.service;
 
+import com.example.springdogs.dto.DogCard;
 import com.example.springdogs.dto.DogDto;
 import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.DogScrollPage;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.dto.DogSlice;
+import com.example.springdogs.dto.DogVersion;
+import com.example.springdogs.dto.PredictionStreamEvent;
 import com.example.springdogs.dto.SafetyPrediction;
 import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
 import com.example.springdogs.repository.DogRepository;
+import com.example.springdogs.repository.DogSpecifications;
+import com.example.springdogs.search.DogSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
 @Service
-@Transactional
 public class DogService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DogService.class);
+
     @Autowired
     private DogRepository dogRepository;
     
     @Autowired
     private ChatGptService chatGptService;
 
+    @Autowired
+    private DogPredictionWorker dogPredictionWorker;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DogSearchIndex dogSearchIndex;
+
+    @Autowired
+    private DogCounters dogCounters;
+
+    @Autowired
+    private DogCache dogCache;
+
+    @Autowired
+    private DogListCache dogListCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.prediction.async.enabled:false}")
+    private boolean asyncPrediction;
+
     public Page<DogDto> findAllDogs(String search, String prediction, Pageable pageable) {
-        Page<Dog> dogs;
-        if (prediction != null && !prediction.trim().isEmpty() && !prediction.equals("All")) {
-            dogs = dogRepository.findByIsSafeToPet(prediction, pageable);
-        } else if (search != null && !search.trim().isEmpty()) {
-            dogs = dogRepository.searchDogs(search, pageable);
+        return findAllDogs(DogSearchCriteria.of(search, prediction), pageable);
+    }
+
+    /**
+     * Lists dogs matching every criterion that is set. With a search term the search index
+     * answers the whole query; filters alone are served by the composite indexes on the table.
+     * Results are cached until the next write to any dog.
+     */
+    // Not @Transactional, like the other cached listings below: cache hits must not take a
+    // connection from the pool, and each miss reads through a single repository call
+    public Page<DogDto> findAllDogs(DogSearchCriteria criteria, Pageable pageable) {
+        SafetyLevel prediction;
+        try {
+            prediction = criteria.predictionLevel();
+        } catch (IllegalArgumentException e) {
+            // No dog can carry an unknown prediction
+            return Page.empty(pageable);
+        }
+        return dogListCache.get(DogListCache.Kind.PAGE, criteria, pageable, () -> {
+            if (criteria.hasSearch()) {
+                return searchDogs(criteria, pageable);
+            }
+            Page<Dog> dogs = dogRepository.findAll(filters(criteria, prediction), pageable);
+            return dogs.map(DogDto::fromEntity);
+        });
+    }
+
+    /**
+     * Like {@link #findAllDogs(DogSearchCriteria, Pageable)} without the count query: reads one
+     * extra row to tell whether another page follows. With {@code withTotal}, adds the total from
+     * {@link DogCounters} where it can answer for the criteria.
+     */
+    public DogSlice findDogSlice(DogSearchCriteria criteria, Pageable pageable, boolean withTotal) {
+        SafetyLevel prediction;
+        try {
+            prediction = criteria.predictionLevel();
+        } catch (IllegalArgumentException e) {
+            return new DogSlice(List.of(), pageable.getPageNumber(), pageable.getPageSize(), false, withTotal ? 0L : null);
+        }
+        DogSlice slice = dogListCache.get(DogListCache.Kind.SLICE, criteria, pageable,
+                () -> loadDogSlice(criteria, prediction, pageable));
+        if (!withTotal) {
+            return slice;
+        }
+        // Added after the lookup: DogCounters bounds the total's staleness itself, while a cached
+        // total would be served until the next write
+        return new DogSlice(slice.getContent(), slice.getPage(), slice.getSize(), slice.isHasNext(),
+                dogCounters.approximateTotal(criteria));
+    }
+
+    private DogSlice loadDogSlice(DogSearchCriteria criteria, SafetyLevel prediction, Pageable pageable) {
+        List<Dog> dogs;
+        boolean hasNext;
+        if (criteria.hasSearch()) {
+            List<Long> ids = dogSearchIndex.searchSlice(criteria, pageable);
+            hasNext = ids.size() > pageable.getPageSize();
+            dogs = findAllInOrder(hasNext ? ids.subList(0, pageable.getPageSize()) : ids);
+        } else {
+            Slice<Dog> slice = dogRepository.findSlice(filters(criteria, prediction), pageable);
+            hasNext = slice.hasNext();
+            dogs = slice.getContent();
+        }
+        return new DogSlice(dogs.stream().map(DogDto::fromEntity).toList(),
+                pageable.getPageNumber(), pageable.getPageSize(), hasNext, null);
+    }
+
+    /**
+     * The card grid's view of {@link #findDogSlice}: selects only the columns a card shows, into
+     * {@link DogCard} records, skipping entity hydration and cutting the long text columns to
+     * previews.
+     */
+    public Slice<DogCard> findDogCards(DogSearchCriteria criteria, Pageable pageable) {
+        SafetyLevel prediction;
+        try {
+            prediction = criteria.predictionLevel();
+        } catch (IllegalArgumentException e) {
+            return new SliceImpl<>(List.of(), pageable, false);
+        }
+        return dogListCache.get(DogListCache.Kind.CARDS, criteria, pageable, () -> loadDogCards(criteria, prediction, pageable));
+    }
+
+    private Slice<DogCard> loadDogCards(DogSearchCriteria criteria, SafetyLevel prediction, Pageable pageable) {
+        if (!criteria.hasSearch()) {
+            return dogRepository.findCards(filters(criteria, prediction), pageable);
+        }
+        List<Long> ids = dogSearchIndex.searchSlice(criteria, pageable);
+        boolean hasNext = ids.size() > pageable.getPageSize();
+        List<Long> page = hasNext ? ids.subList(0, pageable.getPageSize()) : ids;
+        Map<Long, Integer> rank = rank(page);
+        List<DogCard> cards = dogRepository.findCardsById(page).stream()
+                .sorted(Comparator.comparing(card -> rank.get(card.id())))
+                .toList();
+        return new SliceImpl<>(cards, pageable, hasNext);
+    }
+
+    /**
+     * Lists the dogs after the cursor's position, filtered like {@link #findAllDogs}. Pages seek
+     * past the last dog's {@code (sort key, id)} instead of skipping an offset, so page N costs
+     * the same as page 1, and dogs inserted meanwhile never shift or repeat later pages.
+     */
+    @Transactional(readOnly = true)
+    public DogScrollPage scrollDogs(DogSearchCriteria criteria, DogCursor cursor, int size) {
+        SafetyLevel prediction;
+        try {
+            prediction = criteria.predictionLevel();
+        } catch (IllegalArgumentException e) {
+            return new DogScrollPage(List.of(), null);
+        }
+        List<Dog> dogs;
+        boolean hasNext;
+        if (criteria.hasSearch()) {
+            List<Long> ids = dogSearchIndex.searchAfter(criteria, cursor, size + 1);
+            hasNext = ids.size() > size;
+            dogs = findAllInOrder(hasNext ? ids.subList(0, size) : ids);
         } else {
-            dogs = dogRepository.findAll(pageable);
+            Slice<Dog> slice = dogRepository.findSlice(filters(criteria, prediction).and(cursor.seek()),
+                    PageRequest.of(0, size, cursor.sort()));
+            hasNext = slice.hasNext();
+            dogs = slice.getContent();
+        }
+        // A hit deleted after the index lookup can leave the page short, but never empty
+        // while more hits follow unless every one of them was deleted
+        String nextCursor = hasNext && !dogs.isEmpty() ? cursor.after(dogs.get(dogs.size() - 1)).encode() : null;
+        return new DogScrollPage(dogs.stream().map(DogDto::fromEntity).toList(), nextCursor);
+    }
+
+    private static Specification<Dog> filters(DogSearchCriteria criteria, SafetyLevel prediction) {
+        return DogSpecifications.matches(prediction,
+                criteria.hasBreed() ? criteria.getBreed() : null,
+                criteria.getMinAge(), criteria.getMaxAge(),
+                criteria.getMinWeight(), criteria.getMaxWeight());
+    }
+
+    // Ranked ids come from the search index; only the page's rows are read from the database
+    private Page<DogDto> searchDogs(DogSearchCriteria criteria, Pageable pageable) {
+        DogSearchIndex.Hits hits = dogSearchIndex.search(criteria, pageable);
+        List<DogDto> page = findAllInOrder(hits.ids()).stream()
+                .map(DogDto::fromEntity)
+                .toList();
+        return new PageImpl<>(page, pageable, hits.total());
+    }
+
+    private List<Dog> findAllInOrder(List<Long> ids) {
+        Map<Long, Integer> rank = rank(ids);
+        return dogRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(dog -> rank.get(dog.getId())))
+                .toList();
+    }
+
+    private static Map<Long, Integer> rank(List<Long> ids) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
         }
-        return dogs.map(DogDto::fromEntity);
+        return rank;
     }
 
+    /**
+     * The dog's version, from the detail cache when it holds the dog, otherwise read without
+     * loading the entity. Empty if the dog does not exist.
+     */
+    public Optional<DogVersion> findDogVersion(Long id) {
+        DogDto cached = dogCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(DogVersion.of(cached));
+        }
+        return dogRepository.findVersionById(id);
+    }
+
+    // Not @Transactional: cache hits must not take a connection from the pool
     public Optional<DogDto> findDogById(Long id) {
+        return Optional.ofNullable(dogCache.get(id, dogId -> dogRepository.findById(dogId)
+                .map(DogDto::fromEntity)
+                .orElse(null)));
+    }
+
+    /**
+     * Streams the safety prediction for the dog's current data and stores it on the dog once
+     * complete, whether or not the client is still listening. Errors and the fallback are
+     * streamed but not stored, so they never replace the dog's last good prediction. Empty if
+     * the dog does not exist.
+     */
+    public Optional<Flux<PredictionStreamEvent>> streamPrediction(Long id) {
         return dogRepository.findById(id)
-                           .map(DogDto::fromEntity);
+                .map(ChatGptDogDto::from)
+                .map(chatGptDogDto -> {
+                    Flux<PredictionStreamEvent> events = chatGptService.streamDogSafety(chatGptDogDto);
+                    events.filter(PredictionStreamEvent::isDone)
+                            .filter(event -> !chatGptService.isFailure(event.prediction()))
+                            .subscribe(event -> dogPredictionWorker.apply(id, chatGptDogDto, event.prediction()),
+                                    e -> logger.error("Could not store streamed prediction for dog {}", id, e));
+                    return events;
+                });
     }
 
+    // Write methods are intentionally not @Transactional: the ChatGPT call can block for
+    // up to the client timeout, so it runs before any connection is taken from the pool
+    // and only the persistence step is wrapped in a short transaction.
     public DogDto saveDog(DogDto dogDto) {
         Dog dog = dogDto.toEntity();
+        ChatGptDogDto chatGptDogDto = ChatGptDogDto.from(dogDto);
         
         // Only get ChatGPT prediction if safety prediction is missing or empty
-        if (dog.getIsSafeToPet() == null || dog.getIsSafeToPet().trim().isEmpty()) {
-            ChatGptDogDto chatGptDogDto = ChatGptDogDto.from(dogDto);
-            SafetyPrediction prediction = chatGptService.predictDogSafety(chatGptDogDto);
-            dog.setIsSafeToPet(prediction.getIsSafeToPet());
-            dog.setSafetyExplanation(prediction.getSafetyExplanation());
+        boolean needsPrediction = dog.getIsSafeToPet() == null || dog.getIsSafeToPet() == SafetyLevel.PENDING;
+        if (needsPrediction) {
+            DogPredictionWorker.applyPrediction(dog,
+                    asyncPrediction ? pendingPrediction() : chatGptService.predictDogSafety(chatGptDogDto),
+                    DogPredictionWorker.fingerprint(chatGptDogDto));
         }
         
-        Dog savedDog = dogRepository.save(dog);
+        Dog savedDog = transactionTemplate.execute(status -> {
+            Dog saved = dogRepository.save(dog);
+            eventPublisher.publishEvent(new DogChangedEvent(saved.getId()));
+            return saved;
+        });
+        if (needsPrediction && asyncPrediction) {
+            dogPredictionWorker.schedule(savedDog.getId(), chatGptDogDto);
+        }
         return DogDto.fromEntity(savedDog);
     }
 
     public Optional<DogDto> updateDog(Long id, DogDto dogDto) {
-        if (!dogRepository.existsById(id)) {
+        Optional<Dog> currentDog = dogRepository.findById(id);
+        if (currentDog.isEmpty()) {
             return Optional.empty();
         }
         
-        Dog existingDog = dogRepository.findById(id).orElseThrow();
-        existingDog.setName(dogDto.getName());
-        existingDog.setBreed(dogDto.getBreed());
-        existingDog.setAge(dogDto.getAge());
-        existingDog.setColor(dogDto.getColor());
-        existingDog.setWeight(dogDto.getWeight());
-        existingDog.setTemperament(dogDto.getTemperament());
-        
-        // Always get fresh ChatGPT safety prediction when dog data is updated
-        // This ensures temperament changes trigger new predictions
+        // Only ask ChatGPT again when a field that affects safety, or the prompt/model version,
+        // changed; fixing a name or color keeps the stored prediction
         ChatGptDogDto chatGptDogDto = ChatGptDogDto.from(dogDto);
-        SafetyPrediction prediction = chatGptService.predictDogSafety(chatGptDogDto);
-        existingDog.setIsSafeToPet(prediction.getIsSafeToPet());
-        existingDog.setSafetyExplanation(prediction.getSafetyExplanation());
+        String fingerprint = DogPredictionWorker.fingerprint(chatGptDogDto);
+        boolean needsPrediction = !DogPredictionWorker.isPredictionCurrent(currentDog.get(), fingerprint);
+        SafetyPrediction prediction = !needsPrediction ? null
+                : asyncPrediction ? pendingPrediction() : chatGptService.predictDogSafety(chatGptDogDto);
         
-        Dog updatedDog = dogRepository.save(existingDog);
-        return Optional.of(DogDto.fromEntity(updatedDog));
+        // Re-read inside the write transaction; the dog may have been deleted while we
+        // were waiting on ChatGPT
+        Optional<DogDto> updated = transactionTemplate.execute(status -> dogRepository.findById(id).map(existingDog -> {
+            existingDog.setName(dogDto.getName());
+            existingDog.setBreed(dogDto.getBreed());
+            existingDog.setAge(dogDto.getAge());
+            existingDog.setColor(dogDto.getColor());
+            existingDog.setWeight(dogDto.getWeight());
+            existingDog.setTemperament(dogDto.getTemperament());
+            if (prediction != null) {
+                DogPredictionWorker.applyPrediction(existingDog, prediction, fingerprint);
+            } else if (!DogPredictionWorker.isPredictionCurrent(existingDog, fingerprint)) {
+                // Another edit changed the prediction since we checked; predict in the background
+                DogPredictionWorker.applyPrediction(existingDog, pendingPrediction(), fingerprint);
+            }
+            
+            Dog updatedDog = dogRepository.save(existingDog);
+            eventPublisher.publishEvent(new DogChangedEvent(id));
+            return DogDto.fromEntity(updatedDog);
+        }));
+        if (updated.isPresent() && isPredictionPending(updated.get())) {
+            dogPredictionWorker.schedule(id, chatGptDogDto);
+        }
+        return updated;
+    }
+
+    public boolean isPredictionPending(DogDto dogDto) {
+        return dogDto.getIsSafeToPet() == SafetyLevel.PENDING;
     }
 
+    private SafetyPrediction pendingPrediction() {
+        return new SafetyPrediction(SafetyLevel.PENDING, "Safety prediction is in progress");
+    }
+
+    @Transactional
     public boolean deleteDog(Long id) {
         if (!dogRepository.existsById(id)) {
             return false;
         }
         dogRepository.deleteById(id);
+        eventPublisher.publishEvent(new DogChangedEvent(id));
         return true;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Long> getDogStats() {
         Map<String, Long> stats = new HashMap<>();
         stats.put("TOTAL", dogRepository.count());
         return stats;
     }
 }
-
@@ -0,0 +1,121 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures bytes allocated and time per request for a page of 50 dogs through the entity path
+ * ({@code findDogSlice}: hydrated, snapshotted entities copied to DTOs) and the card projection
+ * ({@code findDogCards}). Dogs carry full-length temperaments and explanations, as stored
+ * predictions do. The projection must allocate at most three quarters as much.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "logging.level.org.hibernate.SQL=warn"
+})
+@DirtiesContext
+class DogCardAllocationBenchmark {
+
+    static final int TABLE_SIZE = 20_000;
+    static final int RUNS = 200;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void cardProjection_AllocatesLessThanEntities() {
+        insertDogs(TABLE_SIZE);
+        DogSearchCriteria criteria = DogSearchCriteria.of(null, "Yes");
+        PageRequest page = PageRequest.of(3, 50, Sort.by("name"));
+
+        Map<String, Supplier<Object>> paths = new LinkedHashMap<>();
+        paths.put("entities + DTOs", () -> dogService.findDogSlice(criteria, page, false));
+        paths.put("card projection", () -> dogService.findDogCards(criteria, page));
+
+        Map<String, long[]> results = new LinkedHashMap<>();
+        System.out.printf("%n%-20s%16s%14s%n", "per request", "bytes", "median ms");
+        for (Map.Entry<String, Supplier<Object>> path : paths.entrySet()) {
+            long[] measured = measure(path.getValue());
+            results.put(path.getKey(), measured);
+            System.out.printf("%-20s%16d%14.3f%n", path.getKey(), measured[0], measured[1] / 1e6);
+        }
+
+        long entityBytes = results.get("entities + DTOs")[0];
+        long cardBytes = results.get("card projection")[0];
+        assertTrue(cardBytes < entityBytes * 3 / 4, "cards allocated " + cardBytes + " vs " + entityBytes + " bytes");
+    }
+
+    // Median bytes allocated by this thread and median nanoseconds per call
+    private long[] measure(Supplier<Object> request) {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < RUNS / 4; i++) {
+            request.get();
+        }
+        long[] bytes = new long[RUNS];
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long started = System.nanoTime();
+            request.get();
+            nanos[i] = System.nanoTime() - started;
+            bytes[i] = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        Arrays.sort(bytes);
+        Arrays.sort(nanos);
+        return new long[] {bytes[RUNS / 2], nanos[RUNS / 2]};
+    }
+
+    private void insertDogs(int count) {
+        SafetyLevel[] levels = {SafetyLevel.YES, SafetyLevel.NO, SafetyLevel.CAUTIOUSLY};
+        Random random = new Random(42);
+        String temperament = "Friendly and playful, good with children, ".repeat(12);
+        String explanation = "The temperament described suggests a well socialized dog. ".repeat(17);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                "Name" + random.nextInt(2_000),
+                "Breed " + random.nextInt(400),
+                1 + random.nextInt(15),
+                "Brown",
+                5.0 + random.nextInt(600) / 10.0,
+                temperament.substring(0, 400 + random.nextInt(90)),
+                levels[random.nextInt(levels.length)].getCode(),
+                explanation.substring(0, 800 + random.nextInt(150))
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO dogs (name, breed, age, color, weight, temperament, is_safe_to_pet, safety_explanation) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            rows);
+    }
+}
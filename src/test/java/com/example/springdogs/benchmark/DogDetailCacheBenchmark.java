@@ -0,0 +1,69 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.service.DogCache;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times dog detail reads of the sample dogs with every read a cache miss and with a warm
+ * cache. Warm reads must have a sub-millisecond median.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "logging.level.org.hibernate.SQL=warn"
+})
+@DirtiesContext
+class DogDetailCacheBenchmark {
+
+    static final int RUNS = 5_000;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogCache dogCache;
+
+    @Test
+    void hotDogDetail_HasSubMillisecondMedian() {
+        List<Long> ids = dogService.findAllDogs(new DogSearchCriteria(), PageRequest.of(0, 20))
+                .map(DogDto::getId).getContent();
+
+        double coldMillis = medianMillis(ids, true);
+        double hotMillis = medianMillis(ids, false);
+
+        System.out.printf("%nmedian ms per detail read: uncached %.4f, cached %.4f%n", coldMillis, hotMillis);
+        System.out.println(dogCache.getStats());
+        assertTrue(hotMillis < 1.0, "cached median was " + hotMillis + " ms");
+    }
+
+    private double medianMillis(List<Long> ids, boolean invalidateFirst) {
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            Long id = ids.get(i % ids.size());
+            if (invalidateFirst) {
+                dogCache.invalidate(id);
+            }
+            long started = System.nanoTime();
+            assertTrue(dogService.findDogById(id).isPresent());
+            times[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+}
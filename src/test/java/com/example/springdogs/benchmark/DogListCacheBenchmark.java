@@ -0,0 +1,153 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.search.DogSearchIndex;
+import com.example.springdogs.service.DogDataGeneration;
+import com.example.springdogs.service.DogListCache;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a read-heavy mixed workload on 100k dogs from several threads: 99% listing requests
+ * skewed towards popular queries (first pages, each prediction filter, common search terms)
+ * and 1% single-row writes that bump the data generation. The same workload runs once with the
+ * cache defeated by a generation bump before every read, and once as is. The cached run must
+ * have at least twice the throughput.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "logging.level.org.hibernate.SQL=warn"
+})
+@DirtiesContext
+class DogListCacheBenchmark {
+
+    static final int TABLE_SIZE = 100_000;
+    static final int THREADS = 4;
+    static final int OPERATIONS_PER_THREAD = 5_000;
+    static final double WRITE_RATIO = 0.01;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogListCache dogListCache;
+
+    @Autowired
+    private DogDataGeneration dataGeneration;
+
+    @Autowired
+    private DogSearchIndex dogSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<DogSearchCriteria> popularQueries = new ArrayList<>();
+
+    @Test
+    void readHeavyWorkload_CachedRunsAtLeastTwiceAsFast() throws Exception {
+        insertDogs(TABLE_SIZE);
+        dogSearchIndex.rebuild();
+        dataGeneration.bump();
+        popularQueries.add(new DogSearchCriteria());
+        for (String prediction : List.of("Yes", "No", "Cautiously")) {
+            popularQueries.add(DogSearchCriteria.of(null, prediction));
+        }
+        for (String search : List.of("Name1", "Breed 7", "brown", "Name42")) {
+            popularQueries.add(DogSearchCriteria.of(search, null));
+        }
+
+        double uncached = opsPerSecond(true);
+        long hitsBefore = (Long) dogListCache.getStats().get("hits");
+        long missesBefore = (Long) dogListCache.getStats().get("misses");
+        double cached = opsPerSecond(false);
+        long hits = (Long) dogListCache.getStats().get("hits") - hitsBefore;
+        long misses = (Long) dogListCache.getStats().get("misses") - missesBefore;
+
+        System.out.printf("%nops/s uncached %.0f, cached %.0f (hit rate %.3f)%n",
+                uncached, cached, (double) hits / (hits + misses));
+        assertTrue(cached > uncached * 2, "cached " + cached + " vs uncached " + uncached + " ops/s");
+    }
+
+    private double opsPerSecond(boolean defeatCache) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                long seed = t;
+                workers.add(executor.submit(() -> runWorkload(new Random(seed), defeatCache)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return THREADS * OPERATIONS_PER_THREAD / ((System.nanoTime() - started) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void runWorkload(Random random, boolean defeatCache) {
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            if (random.nextDouble() < WRITE_RATIO) {
+                jdbcTemplate.update("UPDATE dogs SET color = ? WHERE id = ?",
+                        "Color " + random.nextInt(10), 1 + random.nextInt(TABLE_SIZE));
+                // Plain SQL bypasses DogService, so it bumps the generation itself
+                dataGeneration.bump();
+                continue;
+            }
+            if (defeatCache) {
+                dataGeneration.bump();
+            }
+            // Squaring skews picks towards the front of the list and towards the first pages
+            DogSearchCriteria criteria = popularQueries.get(skewed(random, popularQueries.size()));
+            PageRequest page = PageRequest.of(skewed(random, 5), 20, Sort.by("name"));
+            dogService.findAllDogs(criteria, page);
+        }
+    }
+
+    private static int skewed(Random random, int bound) {
+        double r = random.nextDouble();
+        return (int) (r * r * bound);
+    }
+
+    private void insertDogs(int count) {
+        SafetyLevel[] levels = {SafetyLevel.YES, SafetyLevel.NO, SafetyLevel.CAUTIOUSLY};
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                "Name" + random.nextInt(2_000),
+                "Breed " + random.nextInt(400),
+                1 + random.nextInt(15),
+                "Brown",
+                5.0 + random.nextInt(600) / 10.0,
+                "Generated dog " + i,
+                levels[random.nextInt(levels.length)].getCode()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO dogs (name, breed, age, color, weight, temperament, is_safe_to_pet) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            rows);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.search.DogSearchIndex;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Grows the dogs table 16-fold and times combined search and filter listings at each size.
+ * Selective combinations seek a composite index (or the search index) and read only their
+ * matches, so their latency must grow at most half as fast as the table. Broad filters are
+ * reported for reference; their cost follows the number of matching rows.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "logging.level.org.hibernate.SQL=warn"
+})
+@DirtiesContext
+class DogQueryScalingBenchmark {
+
+    static final int[] TABLE_SIZES = {25_000, 100_000, 400_000};
+    static final int BREEDS = 400;
+    static final int NAMES = 2_000;
+    static final int RUNS = 200;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogSearchIndex dogSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+    private int inserted;
+
+    @Test
+    void combinedFilters_StaySubLinearAsTableGrows() {
+        Map<String, DogSearchCriteria> selective = new LinkedHashMap<>();
+        selective.put("breed + prediction + age", criteria(null, "Yes", "Breed 7", 3, 6));
+        selective.put("search + prediction", criteria("Name42", "No", null, null, null));
+        selective.put("search + breed + age", criteria("Name42", null, "Breed 7", 2, 12));
+        Map<String, DogSearchCriteria> broad = new LinkedHashMap<>();
+        broad.put("prediction only", criteria(null, "Cautiously", null, null, null));
+
+        Map<String, List<Double>> medians = new LinkedHashMap<>();
+        for (int size : TABLE_SIZES) {
+            insertDogs(size - inserted);
+            dogSearchIndex.rebuild();
+            for (Map.Entry<String, DogSearchCriteria> query : selective.entrySet()) {
+                medians.computeIfAbsent(query.getKey(), k -> new ArrayList<>()).add(medianMillis(query.getValue()));
+            }
+            for (Map.Entry<String, DogSearchCriteria> query : broad.entrySet()) {
+                medians.computeIfAbsent(query.getKey(), k -> new ArrayList<>()).add(medianMillis(query.getValue()));
+            }
+        }
+
+        System.out.printf("%n%-28s", "median ms (page of 20)");
+        for (int size : TABLE_SIZES) {
+            System.out.printf("%12d", size);
+        }
+        System.out.println();
+        medians.forEach((name, times) -> {
+            System.out.printf("%-28s", name);
+            times.forEach(time -> System.out.printf("%12.3f", time));
+            System.out.println();
+        });
+        System.out.println(jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM dogs WHERE breed = 'Breed 7' AND is_safe_to_pet = 1 AND age BETWEEN 3 AND 6",
+                String.class).get(0));
+
+        double growth = (double) TABLE_SIZES[TABLE_SIZES.length - 1] / TABLE_SIZES[0];
+        for (String name : selective.keySet()) {
+            List<Double> times = medians.get(name);
+            double ratio = times.get(times.size() - 1) / Math.max(0.05, times.get(0));
+            assertTrue(ratio < growth / 2, name + " grew " + ratio + "x for " + growth + "x rows");
+        }
+    }
+
+    private double medianMillis(DogSearchCriteria criteria) {
+        PageRequest page = PageRequest.of(0, 20);
+        for (int i = 0; i < RUNS / 4; i++) {
+            dogService.findAllDogs(criteria, page);
+        }
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            dogService.findAllDogs(criteria, page);
+            times[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    private void insertDogs(int count) {
+        SafetyLevel[] levels = {SafetyLevel.YES, SafetyLevel.NO, SafetyLevel.CAUTIOUSLY};
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                "Name" + random.nextInt(NAMES),
+                "Breed " + random.nextInt(BREEDS),
+                1 + random.nextInt(15),
+                "Brown",
+                5.0 + random.nextInt(600) / 10.0,
+                "Generated dog " + (inserted + i),
+                levels[random.nextInt(levels.length)].getCode()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO dogs (name, breed, age, color, weight, temperament, is_safe_to_pet) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            rows);
+        inserted += count;
+    }
+
+    private static DogSearchCriteria criteria(String search, String prediction, String breed, Integer minAge, Integer maxAge) {
+        DogSearchCriteria criteria = DogSearchCriteria.of(search, prediction);
+        criteria.setBreed(breed);
+        criteria.setMinAge(minAge);
+        criteria.setMaxAge(maxAge);
+        return criteria;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.service.DogCursor;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times fetching a page of 20 dogs by name at increasing depths of a 200k-row table, with
+ * offset pagination and with a cursor. Offset pages get slower the deeper they are; cursor
+ * pages must stay within a small constant factor of the first page.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "logging.level.org.hibernate.SQL=warn"
+})
+@DirtiesContext
+class DogScrollDepthBenchmark {
+
+    static final int TABLE_SIZE = 200_000;
+    static final int[] DEPTHS = {0, 1_000, 20_000, 100_000, 190_000};
+    static final int PAGE_SIZE = 20;
+    static final int RUNS = 100;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cursorPages_CostTheSameAtAnyDepth() {
+        insertDogs(TABLE_SIZE);
+        DogSearchCriteria all = new DogSearchCriteria();
+
+        System.out.printf("%n%-12s%14s%14s%n", "depth", "offset ms", "cursor ms");
+        List<Double> cursorTimes = new ArrayList<>();
+        for (int depth : DEPTHS) {
+            PageRequest page = PageRequest.of(depth / PAGE_SIZE, PAGE_SIZE, Sort.by("name", "id"));
+            DogCursor cursor = cursorAt(depth);
+            double offsetMillis = medianMillis(() -> dogService.findAllDogs(all, page));
+            double cursorMillis = medianMillis(() -> dogService.scrollDogs(all, cursor, PAGE_SIZE));
+            cursorTimes.add(cursorMillis);
+            System.out.printf("%-12d%14.3f%14.3f%n", depth, offsetMillis, cursorMillis);
+        }
+
+        double ratio = cursorTimes.get(cursorTimes.size() - 1) / Math.max(0.05, cursorTimes.get(0));
+        assertTrue(ratio < 3, "deepest cursor page took " + ratio + "x the first");
+    }
+
+    // The cursor a client would hold after scrolling past the first depth dogs
+    private DogCursor cursorAt(int depth) {
+        if (depth == 0) {
+            return DogCursor.first("name", false);
+        }
+        Map<String, Object> last = jdbcTemplate.queryForMap(
+                "SELECT name, id FROM dogs ORDER BY name, id OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY", depth - 1);
+        return new DogCursor("name", false, (String) last.get("NAME"), ((Number) last.get("ID")).longValue());
+    }
+
+    private static double medianMillis(Runnable query) {
+        for (int i = 0; i < RUNS / 4; i++) {
+            query.run();
+        }
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            query.run();
+            times[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    private void insertDogs(int count) {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                "Name" + random.nextInt(50_000),
+                "Breed " + random.nextInt(400),
+                1 + random.nextInt(15),
+                "Brown",
+                5.0 + random.nextInt(600) / 10.0,
+                "Generated dog " + i,
+                SafetyLevel.YES.getCode()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO dogs (name, breed, age, color, weight, temperament, is_safe_to_pet) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            rows);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.service.DogCounters;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Times the first page of broad listings on a 400k-row table as a counted page and as a slice
+ * with an approximate total. A filtered page's count reads every match while the slice reads
+ * one row past the page, so the slice must take at most half the time. The unfiltered listing
+ * is reported for reference; H2 keeps the table's row count, so its page is cheap already.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "logging.level.org.hibernate.SQL=warn"
+})
+@DirtiesContext
+class DogSliceBenchmark {
+
+    static final int TABLE_SIZE = 400_000;
+    static final int RUNS = 100;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogCounters dogCounters;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void filteredSlice_TakesAtMostHalfThePageTime() {
+        insertDogs(TABLE_SIZE);
+        // Rows were inserted behind the application's back
+        dogCounters.refresh();
+
+        Map<String, DogSearchCriteria> listings = new LinkedHashMap<>();
+        listings.put("all dogs", new DogSearchCriteria());
+        listings.put("prediction only", DogSearchCriteria.of(null, "Yes"));
+        PageRequest page = PageRequest.of(0, 20);
+
+        System.out.printf("%n%-20s%14s%14s%n", "median ms", "page", "slice");
+        for (Map.Entry<String, DogSearchCriteria> listing : listings.entrySet()) {
+            DogSearchCriteria criteria = listing.getValue();
+            double pageMillis = medianMillis(() -> dogService.findAllDogs(criteria, page));
+            double sliceMillis = medianMillis(() -> dogService.findDogSlice(criteria, page, true));
+            System.out.printf("%-20s%14.3f%14.3f%n", listing.getKey(), pageMillis, sliceMillis);
+            if (!criteria.equals(new DogSearchCriteria())) {
+                assertTrue(sliceMillis < pageMillis / 2,
+                        listing.getKey() + ": slice " + sliceMillis + " ms vs page " + pageMillis + " ms");
+            }
+        }
+    }
+
+    private static double medianMillis(Runnable query) {
+        for (int i = 0; i < RUNS / 4; i++) {
+            query.run();
+        }
+        double[] times = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long started = System.nanoTime();
+            query.run();
+            times[i] = (System.nanoTime() - started) / 1e6;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+
+    private void insertDogs(int count) {
+        SafetyLevel[] levels = {SafetyLevel.YES, SafetyLevel.NO, SafetyLevel.CAUTIOUSLY};
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] {
+                "Name" + random.nextInt(2_000),
+                "Breed " + random.nextInt(400),
+                1 + random.nextInt(15),
+                "Brown",
+                5.0 + random.nextInt(600) / 10.0,
+                "Generated dog " + i,
+                levels[random.nextInt(levels.length)].getCode()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO dogs (name, breed, age, color, weight, temperament, is_safe_to_pet) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            rows);
+    }
+}
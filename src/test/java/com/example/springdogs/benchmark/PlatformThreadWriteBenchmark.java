@@ -0,0 +1,18 @@
+package com.example.springdogs.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadWriteBenchmark extends WriteConcurrencyBenchmark {
+
+    @Test
+    void concurrentWrites_OnTomcatThreadPool() throws Exception {
+        int maxSustained = runWaves("platform threads");
+
+        // Up to the 200 Tomcat threads every write is served without queueing
+        assertTrue(maxSustained >= 100);
+    }
+}
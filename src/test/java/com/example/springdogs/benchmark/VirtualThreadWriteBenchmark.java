@@ -0,0 +1,21 @@
+package com.example.springdogs.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadWriteBenchmark extends WriteConcurrencyBenchmark {
+
+    @Test
+    void concurrentWrites_OnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need a Java 21 runtime");
+
+        int maxSustained = runWaves("virtual threads");
+
+        // Blocked writes no longer hold request threads, so every wave runs without queueing
+        assertEquals(CONCURRENCY[CONCURRENCY.length - 1], maxSustained);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.springdogs.benchmark;
+
+import com.example.springdogs.prediction.OpenAiStubServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives waves of concurrent {@code POST /api/dogs} writes, each blocked on a stubbed OpenAI
+ * call of fixed latency, and reports per wave the success rate, latency percentiles, live
+ * threads and heap per in-flight write. A wave is sustained when every write succeeds and p99
+ * stays under 1.5x the stub latency, i.e. no write queued for a free request thread. The stub
+ * runs in-process with a thread per call, which adds the same thread count to both modes.
+ *
+ * <p>Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "app.prediction.cache.redis.enabled=false",
+    "app.openai.rate-limit.requests-per-minute=1000000",
+    "app.openai.rate-limit.tokens-per-minute=1000000000",
+    "app.openai.rate-limit.initial-concurrency=5000",
+    "app.openai.rate-limit.max-concurrency=5000"
+})
+@DirtiesContext
+abstract class WriteConcurrencyBenchmark {
+
+    static final Duration STUB_LATENCY = Duration.ofSeconds(1);
+    static final int[] CONCURRENCY = {100, 200, 400, 800};
+
+    private static final OpenAiStubServer STUB = startStub();
+    private static final AtomicInteger DOG_SEQUENCE = new AtomicInteger();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    @DynamicPropertySource
+    static void openAiStub(DynamicPropertyRegistry registry) {
+        registry.add("app.openai.base-url", STUB::baseUrl);
+    }
+
+    /**
+     * @return the highest sustained concurrency, 0 if none was
+     */
+    protected int runWaves(String mode) throws Exception {
+        String token = login();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        int maxSustained = 0;
+
+        System.out.printf("%n[%s] stub latency %d ms%n", mode, STUB_LATENCY.toMillis());
+        System.out.printf("%-12s %8s %9s %9s %9s %10s %14s%n",
+            "concurrency", "ok", "p50 ms", "p99 ms", "max ms", "threads", "heap KB/write");
+        for (int concurrency : CONCURRENCY) {
+            System.gc();
+            int baselineThreads = threads.getThreadCount();
+            long baselineHeap = memory.getHeapMemoryUsage().getUsed();
+
+            List<CompletableFuture<Long>> writes = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                writes.add(write(token));
+            }
+            // Writes are parked in the stubbed OpenAI call for most of its latency
+            Thread.sleep(STUB_LATENCY.toMillis() / 2);
+            int peakThreads = threads.getThreadCount();
+            long peakHeap = memory.getHeapMemoryUsage().getUsed();
+
+            long[] latencies = new long[concurrency];
+            int succeeded = 0;
+            for (int i = 0; i < concurrency; i++) {
+                long latency = writes.get(i).get(2, TimeUnit.MINUTES);
+                latencies[i] = Math.abs(latency);
+                if (latency >= 0) {
+                    succeeded++;
+                }
+            }
+            Arrays.sort(latencies);
+            long p50 = latencies[concurrency / 2];
+            long p99 = latencies[(int) Math.ceil(concurrency * 0.99) - 1];
+            boolean sustained = succeeded == concurrency && p99 < STUB_LATENCY.toMillis() * 3 / 2;
+            if (sustained) {
+                maxSustained = concurrency;
+            }
+            System.out.printf("%-12d %8d %9d %9d %9d %10d %14d%s%n",
+                concurrency, succeeded, p50, p99, latencies[concurrency - 1], peakThreads - baselineThreads,
+                Math.max(0, peakHeap - baselineHeap) / 1024 / concurrency, sustained ? "" : "  (queued)");
+        }
+        System.out.printf("[%s] max sustained concurrent writes: %d%n", mode, maxSustained);
+        return maxSustained;
+    }
+
+    // Completes with the write's latency in ms, negated if it did not succeed
+    private CompletableFuture<Long> write(String token) {
+        int n = DOG_SEQUENCE.incrementAndGet();
+        Map<String, Object> dog = new LinkedHashMap<>();
+        dog.put("name", "Bench " + n);
+        dog.put("breed", "Beagle");
+        dog.put("age", 1 + n % 15);
+        dog.put("weight", 10.0 + n % 20);
+        // Unique text: no cache hits, and nothing the local pre-screen can answer
+        dog.put("temperament", "Benchmark dog number " + n + " likes long walks");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/dogs"))
+            .header("Authorization", "Bearer " + token)
+            .header("Content-Type", "application/json")
+            .timeout(Duration.ofMinutes(1))
+            .POST(HttpRequest.BodyPublishers.ofString(toJson(dog)))
+            .build();
+        long started = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+                return error == null && response.statusCode() == 201 ? millis : -millis;
+            });
+    }
+
+    private String login() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(toJson(Map.of("username", "admin", "password", "admin123"))))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        return JSON.readTree(response.body()).path("accessToken").asText();
+    }
+
+    private static String toJson(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static OpenAiStubServer startStub() {
+        try {
+            return new OpenAiStubServer().latency(OpenAiStubServer.LatencyDistribution.fixed(STUB_LATENCY));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
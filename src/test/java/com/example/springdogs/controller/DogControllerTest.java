@@ -0,0 +1,177 @@
+package com.example.springdogs.controller;
+
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.dto.DogSlice;
+import com.example.springdogs.dto.DogVersion;
+import com.example.springdogs.service.DogDataGeneration;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DogControllerTest {
+
+    @Mock
+    private DogService dogService;
+
+    @Spy
+    private DogDataGeneration dogDataGeneration = new DogDataGeneration();
+
+    @InjectMocks
+    private DogController dogController;
+
+    private DogDto dog;
+    private DogVersion version;
+
+    @BeforeEach
+    void setUp() {
+        dog = new DogDto();
+        dog.setId(7L);
+        dog.setName("Buddy");
+        dog.setUpdatedAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000));
+        version = DogVersion.of(dog);
+    }
+
+    @Test
+    void getDogById_WithoutValidators_ReturnsDogWithEtagAndLastModified() {
+        when(dogService.findDogVersion(7L)).thenReturn(Optional.of(version));
+        when(dogService.findDogById(7L)).thenReturn(Optional.of(dog));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<DogDto> result = dogController.getDogById(7L, request(new MockHttpServletRequest("GET", "/api/dogs/7"), response));
+
+        assertSame(dog, result.getBody());
+        assertEquals(version.etag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals(version.lastModifiedMillis() / 1000 * 1000, response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void getDogById_WithMatchingEtag_Returns304WithoutLoadingDog() {
+        when(dogService.findDogVersion(7L)).thenReturn(Optional.of(version));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/dogs/7");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, version.etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(dogController.getDogById(7L, request(servletRequest, response)));
+
+        assertEquals(304, response.getStatus());
+        verify(dogService, never()).findDogById(any());
+    }
+
+    @Test
+    void getDogById_WithEtagOfEarlierUpdate_ReturnsDog() {
+        String earlier = new DogVersion(7L, dog.getUpdatedAt().minusNanos(1_000)).etag();
+        when(dogService.findDogVersion(7L)).thenReturn(Optional.of(version));
+        when(dogService.findDogById(7L)).thenReturn(Optional.of(dog));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/dogs/7");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, earlier);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<DogDto> result = dogController.getDogById(7L, request(servletRequest, response));
+
+        assertEquals(200, result.getStatusCode().value());
+        assertEquals(version.etag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getDogById_WithNotModifiedSince_Returns304() {
+        when(dogService.findDogVersion(7L)).thenReturn(Optional.of(version));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/dogs/7");
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, version.lastModifiedMillis() + 1_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(dogController.getDogById(7L, request(servletRequest, response)));
+
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void getDogById_WithUnknownDog_Returns404() {
+        when(dogService.findDogVersion(7L)).thenReturn(Optional.empty());
+
+        ResponseEntity<DogDto> result = dogController.getDogById(7L,
+                request(new MockHttpServletRequest("GET", "/api/dogs/7"), new MockHttpServletResponse()));
+
+        assertEquals(404, result.getStatusCode().value());
+    }
+
+    @Test
+    void getAllDogs_WithCurrentGenerationEtag_Returns304WithoutQuerying() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/dogs");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, dogDataGeneration.version().etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(dogController.getAllDogs(new DogSearchCriteria(), PageRequest.of(0, 10), request(servletRequest, response)));
+
+        assertEquals(304, response.getStatus());
+        verify(dogService, never()).findAllDogs(any(DogSearchCriteria.class), any());
+    }
+
+    @Test
+    void getAllDogs_AfterWrite_ReturnsPageWithNewEtag() {
+        String before = dogDataGeneration.version().etag();
+        dogDataGeneration.bump();
+        when(dogService.findAllDogs(any(DogSearchCriteria.class), any())).thenReturn(new PageImpl<>(List.of(dog)));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/dogs");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, before);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        var result = dogController.getAllDogs(new DogSearchCriteria(), PageRequest.of(0, 10), request(servletRequest, response));
+
+        assertEquals(1, result.getBody().getTotalElements());
+        assertNotEquals(before, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(dogDataGeneration.version().etag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getDogSlice_WithTotal_IgnoresGenerationEtag() {
+        DogSlice slice = new DogSlice(List.of(dog), 0, 10, false, 1L);
+        when(dogService.findDogSlice(any(DogSearchCriteria.class), any(), eq(true))).thenReturn(slice);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/dogs/slice");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, dogDataGeneration.version().etag());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<DogSlice> result = dogController.getDogSlice(new DogSearchCriteria(), PageRequest.of(0, 10), true,
+                request(servletRequest, response));
+
+        assertSame(slice, result.getBody());
+        assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void etag_WithoutUpdateTime_IsNull() {
+        DogVersion unsaved = new DogVersion(7L, null);
+
+        assertNull(unsaved.etag());
+        assertEquals(-1, unsaved.lastModifiedMillis());
+    }
+
+    private static ServletWebRequest request(MockHttpServletRequest request, MockHttpServletResponse response) {
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springdogs.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SafetyLevelTest {
+
+    @Test
+    void parseVerdict_WithModelVariants_MapsToLevel() {
+        assertEquals(SafetyLevel.YES, SafetyLevel.parseVerdict(" YES "));
+        assertEquals(SafetyLevel.YES, SafetyLevel.parseVerdict("y"));
+        assertEquals(SafetyLevel.NO, SafetyLevel.parseVerdict("No"));
+        assertEquals(SafetyLevel.CAUTIOUSLY, SafetyLevel.parseVerdict("Caution"));
+        assertEquals(SafetyLevel.ERROR, SafetyLevel.parseVerdict("error"));
+    }
+
+    @Test
+    void parseVerdict_WithRange_ParsesOnlyThatPart() {
+        String answer = "1|cautiously|Very energetic";
+
+        assertEquals(SafetyLevel.CAUTIOUSLY, SafetyLevel.parseVerdict(answer, 2, 12));
+    }
+
+    @Test
+    void parseVerdict_WithNonVerdict_ReturnsNull() {
+        assertNull(SafetyLevel.parseVerdict("Maybe"));
+        assertNull(SafetyLevel.parseVerdict("Yess"));
+        assertNull(SafetyLevel.parseVerdict("Pending"));
+        assertNull(SafetyLevel.parseVerdict(""));
+    }
+
+    @Test
+    void fromCode_RoundTripsEveryLevel() {
+        for (SafetyLevel level : SafetyLevel.values()) {
+            assertEquals(level, SafetyLevel.fromCode(level.getCode()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> SafetyLevel.fromCode((short) 0));
+    }
+
+    @Test
+    void json_UsesLabels() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals("\"Cautiously\"", mapper.writeValueAsString(SafetyLevel.CAUTIOUSLY));
+        assertEquals(SafetyLevel.NO, mapper.readValue("\"No\"", SafetyLevel.class));
+        assertEquals(SafetyLevel.PENDING, mapper.readValue("\"pending\"", SafetyLevel.class));
+        assertNull(SafetyLevel.fromLabel(" "));
+        assertThrows(IllegalArgumentException.class, () -> SafetyLevel.fromLabel("Maybe"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.springdogs.prediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void normalize_LowercasesAndCollapsesPunctuation() {
+        assertEquals(" don t approach 2 dogs ", AhoCorasickMatcher.normalize("Don't   APPROACH -- 2 dogs!"));
+        assertEquals(" ", AhoCorasickMatcher.normalize("..."));
+    }
+
+    @Test
+    void match_FindsOverlappingPhrasesOnWholeWords() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("bite", "bite history", "history", "gentle"));
+
+        List<String> found = matches(matcher, "No bite-history; gentleman, not gentle");
+
+        assertEquals(List.of("bite", "bite history", "history", "gentle"), found);
+    }
+
+    @Test
+    void match_IgnoresPhrasesInsideLongerWords() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("friendly", "bites"));
+
+        assertTrue(matches(matcher, "Unfriendly, frostbites").isEmpty());
+    }
+
+    private List<String> matches(AhoCorasickMatcher matcher, String text) {
+        String normalized = AhoCorasickMatcher.normalize(text);
+        List<String> found = new ArrayList<>();
+        matcher.match(normalized, (id, start, end) -> found.add(normalized.substring(start, end).trim()));
+        return found;
+    }
+}
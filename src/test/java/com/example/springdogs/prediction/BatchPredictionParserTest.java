@@ -0,0 +1,69 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchPredictionParserTest {
+
+    @Test
+    void parse_WithWellFormedLines_ReturnsPredictionPerDog() {
+        String content = "1|YES|Certified therapy dog, gentle with children.\n" +
+                         "2|NO|Multiple bites on record.\n" +
+                         "3|CAUTIOUSLY|Protective around strangers.";
+
+        Map<Integer, SafetyPrediction> result = BatchPredictionParser.parse(content, 3);
+
+        assertEquals(3, result.size());
+        assertEquals(SafetyLevel.YES, result.get(1).getIsSafeToPet());
+        assertEquals("Certified therapy dog, gentle with children.", result.get(1).getSafetyExplanation());
+        assertEquals(SafetyLevel.NO, result.get(2).getIsSafeToPet());
+        assertEquals(SafetyLevel.CAUTIOUSLY, result.get(3).getIsSafeToPet());
+    }
+
+    @Test
+    void parse_WithCommonFormatVariations_StillParses() {
+        String content = "Here are the results:\n" +
+                         "1. Yes - Friendly family dog\n" +
+                         "2) **ERROR** | Negative age\n" +
+                         "Dog 3: caution: Mixed signals";
+
+        Map<Integer, SafetyPrediction> result = BatchPredictionParser.parse(content, 3);
+
+        assertEquals(SafetyLevel.YES, result.get(1).getIsSafeToPet());
+        assertEquals("Friendly family dog", result.get(1).getSafetyExplanation());
+        assertEquals(SafetyLevel.ERROR, result.get(2).getIsSafeToPet());
+        assertEquals("Negative age", result.get(2).getSafetyExplanation());
+        assertEquals(SafetyLevel.CAUTIOUSLY, result.get(3).getIsSafeToPet());
+    }
+
+    @Test
+    void parse_WithMissingInvalidOrDuplicatedDogs_LeavesThemOut() {
+        String content = "1|MAYBE|Not a verdict\n" +
+                         "2|YES|Fine\n" +
+                         "2|NO|Contradicts the line above\n" +
+                         "7|YES|There is no dog seven";
+
+        Map<Integer, SafetyPrediction> result = BatchPredictionParser.parse(content, 3);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void parse_WithoutExplanation_UsesDefault() {
+        Map<Integer, SafetyPrediction> result = BatchPredictionParser.parse("1|NO", 1);
+
+        assertEquals(SafetyLevel.NO, result.get(1).getIsSafeToPet());
+        assertEquals("No explanation provided", result.get(1).getSafetyExplanation());
+    }
+
+    @Test
+    void parse_WithNullOrEmptyContent_ReturnsEmpty() {
+        assertTrue(BatchPredictionParser.parse(null, 2).isEmpty());
+        assertTrue(BatchPredictionParser.parse("", 2).isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.service.ChatGptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OpenAiCircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private OpenAiCircuitBreaker breaker() {
+        return new OpenAiCircuitBreaker(10, 4, 0.5, Duration.ofSeconds(30), 2, now::get);
+    }
+
+    @Test
+    void onFailure_OpensOnceFailureRateReachesThreshold() {
+        OpenAiCircuitBreaker breaker = breaker();
+
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onSuccess();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 2 of 4 calls failed
+        breaker.onFailure();
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void tryAcquirePermission_AfterOpenDuration_AllowsLimitedProbesThenCloses() {
+        OpenAiCircuitBreaker breaker = breaker();
+        openCircuit(breaker);
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertTrue(breaker.tryAcquirePermission());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(OpenAiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void onFailure_DuringHalfOpen_ReopensCircuit() {
+        OpenAiCircuitBreaker breaker = breaker();
+        openCircuit(breaker);
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onFailure();
+
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(2L, breaker.getStats().get("timesOpened"));
+    }
+
+    @Test
+    void reset_ClosesOpenCircuit() {
+        OpenAiCircuitBreaker breaker = breaker();
+        openCircuit(breaker);
+
+        breaker.reset();
+
+        assertEquals(OpenAiCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getStats().get("failureRate"));
+    }
+
+    @Test
+    void predictDogSafety_WhileCircuitOpen_ReturnsFallbackWithoutCallingOpenAi() {
+        OpenAiClient client = mock(OpenAiClient.class);
+        when(client.complete(anyString(), anyInt()))
+                .thenThrow(new WebClientRequestException(new ConnectException("Connection refused"),
+                        HttpMethod.POST, URI.create("https://api.openai.com"), new HttpHeaders()));
+        OpenAiCircuitBreaker breaker = new OpenAiCircuitBreaker(10, 2, 0.5, Duration.ofSeconds(30), 1, now::get);
+        ChatGptService service = new ChatGptService(client, new PredictionCache(), PredictionBatcher.disabled(),
+                new RulePrescreen(false), breaker, PredictionHedger.disabled(), "Cautiously", "Prediction unavailable");
+
+        // Two distinct dogs fail and open the circuit
+        assertEquals(SafetyLevel.ERROR, service.predictDogSafety(dog("Labrador")).getIsSafeToPet());
+        assertEquals(SafetyLevel.ERROR, service.predictDogSafety(dog("Beagle")).getIsSafeToPet());
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, breaker.getState());
+
+        SafetyPrediction result = service.predictDogSafety(dog("Poodle"));
+
+        assertEquals(SafetyLevel.CAUTIOUSLY, result.getIsSafeToPet());
+        assertEquals("Prediction unavailable", result.getSafetyExplanation());
+        verify(client, times(2)).complete(anyString(), anyInt());
+    }
+
+    @Test
+    void predictDogSafety_RecentFailure_IsServedFromNegativeCache() {
+        OpenAiClient client = mock(OpenAiClient.class);
+        when(client.complete(anyString(), anyInt())).thenThrow(new IllegalStateException("boom"));
+        ChatGptService service = new ChatGptService(client, new PredictionCache(), PredictionBatcher.disabled(),
+                new RulePrescreen(false), new OpenAiCircuitBreaker(), PredictionHedger.disabled(), "Error", "Prediction unavailable");
+
+        SafetyPrediction first = service.predictDogSafety(dog("Labrador"));
+        SafetyPrediction second = service.predictDogSafety(dog("Labrador"));
+
+        assertEquals("Technical error occurred: boom", first.getSafetyExplanation());
+        assertSame(first, second);
+        verify(client, times(1)).complete(anyString(), anyInt());
+    }
+
+    private void openCircuit(OpenAiCircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(OpenAiCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private ChatGptDogDto dog(String breed) {
+        ChatGptDogDto dto = new ChatGptDogDto();
+        dto.setName("Rex");
+        dto.setBreed(breed);
+        dto.setAge(3);
+        return dto;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.springdogs.prediction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiRateLimiterTest {
+
+    @Test
+    void onRateLimited_HalvesConcurrencyDownToMinimum() {
+        OpenAiRateLimiter limiter = new OpenAiRateLimiter(1000, 1_000_000, 8, 1, 32);
+
+        limiter.onRateLimited(new HttpHeaders());
+        assertEquals(4.0, limiter.getConcurrencyLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.onRateLimited(new HttpHeaders());
+        }
+        assertEquals(1.0, limiter.getConcurrencyLimit());
+    }
+
+    @Test
+    void onSuccess_GrowsConcurrencyAdditivelyUpToMaximum() {
+        OpenAiRateLimiter limiter = new OpenAiRateLimiter(1000, 1_000_000, 4, 1, 6);
+
+        // One window's worth of successes grows the limit by about one request
+        for (int i = 0; i < 4; i++) {
+            limiter.onSuccess(new HttpHeaders(), 100, 100);
+        }
+        assertEquals(4.9, limiter.getConcurrencyLimit(), 0.1);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess(new HttpHeaders(), 100, 100);
+        }
+        assertEquals(6.0, limiter.getConcurrencyLimit());
+    }
+
+    @Test
+    void acquire_WhenConcurrencyExhausted_ThrowsAtDeadline() throws Exception {
+        OpenAiRateLimiter limiter = new OpenAiRateLimiter(1000, 1_000_000, 1, 1, 1);
+        limiter.acquire(10, deadlineIn(Duration.ofSeconds(1)));
+
+        assertFalse(limiter.tryAcquire(10));
+        assertThrows(OpenAiThrottledException.class,
+            () -> limiter.acquire(10, deadlineIn(Duration.ofMillis(50))));
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire(10));
+    }
+
+    @Test
+    void acquire_AfterRetryAfter_WaitsForThePause() throws Exception {
+        OpenAiRateLimiter limiter = new OpenAiRateLimiter(1000, 1_000_000, 4, 1, 32);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("retry-after-ms", "150");
+
+        Duration retryAfter = limiter.onRateLimited(headers);
+        long start = System.nanoTime();
+        limiter.acquire(10, deadlineIn(Duration.ofSeconds(5)));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(Duration.ofMillis(150), retryAfter);
+        assertTrue(waitedMillis >= 100, "Waited only " + waitedMillis + "ms");
+    }
+
+    @Test
+    void acquire_WithExhaustedRequestBudget_WaitsForRefill() throws Exception {
+        // 600 requests per minute refills one request every 100ms
+        OpenAiRateLimiter limiter = new OpenAiRateLimiter(600, 1_000_000, 1000, 1, 1000);
+        for (int i = 0; i < 600; i++) {
+            assertTrue(limiter.tryAcquire(1));
+        }
+
+        assertFalse(limiter.tryAcquire(1));
+        limiter.acquire(1, deadlineIn(Duration.ofSeconds(2)));
+    }
+
+    @Test
+    void retryAfter_PrefersExplicitHeadersThenResetHeaders() {
+        HttpHeaders retryAfterSeconds = new HttpHeaders();
+        retryAfterSeconds.set(HttpHeaders.RETRY_AFTER, "2");
+        assertEquals(Duration.ofSeconds(2), OpenAiRateLimiter.retryAfter(retryAfterSeconds));
+
+        HttpHeaders resetHeaders = new HttpHeaders();
+        resetHeaders.set("x-ratelimit-reset-requests", "120ms");
+        resetHeaders.set("x-ratelimit-reset-tokens", "1.5s");
+        assertEquals(Duration.ofMillis(1500), OpenAiRateLimiter.retryAfter(resetHeaders));
+
+        assertEquals(Duration.ZERO, OpenAiRateLimiter.retryAfter(new HttpHeaders()));
+    }
+
+    @Test
+    void parseOpenAiDuration_HandlesCompoundValues() {
+        assertEquals(Duration.ofMinutes(6), OpenAiRateLimiter.parseOpenAiDuration("6m0s"));
+        assertEquals(Duration.ofMillis(20), OpenAiRateLimiter.parseOpenAiDuration("20ms"));
+        assertEquals(Duration.ofSeconds(3723), OpenAiRateLimiter.parseOpenAiDuration("1h2m3s"));
+        assertEquals(Duration.ZERO, OpenAiRateLimiter.parseOpenAiDuration(null));
+    }
+
+    @Test
+    void backoff_HonoursRetryAfterAndStaysWithinCeiling() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            Duration plain = OpenAiClient.backoff(attempt, Duration.ZERO);
+            assertTrue(plain.toMillis() <= 20_000);
+
+            Duration withRetryAfter = OpenAiClient.backoff(attempt, Duration.ofSeconds(3));
+            assertTrue(withRetryAfter.compareTo(Duration.ofSeconds(3)) >= 0);
+        }
+    }
+
+    private static long deadlineIn(Duration duration) {
+        return System.nanoTime() + duration.toNanos();
+    }
+}
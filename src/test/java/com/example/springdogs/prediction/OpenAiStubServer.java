@@ -0,0 +1,340 @@
+package com.example.springdogs.prediction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OpenAI-compatible chat completions server for tests and load testing the prediction path
+ * without spending quota. Answers plain and streamed ({@code "stream": true}) requests after a
+ * latency drawn from a configurable distribution, and injects 429s (with {@code Retry-After})
+ * and 5xx errors at configurable rates. Single-dog prompts get a one-line verdict and an
+ * explanation, batched prompts one {@code n|WORD|explanation} line per dog.
+ *
+ * <p>Run standalone with {@code ./gradlew openAiStub -PstubArgs="--port=8089 --latency=lognormal:400ms:3s"}
+ * and start the application with {@code OPENAI_BASE_URL=http://localhost:8089/v1}.
+ */
+public class OpenAiStubServer implements AutoCloseable {
+
+    public static final String COMPLETIONS_PATH = "/v1/chat/completions";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Pattern BATCHED_DOG = Pattern.compile("(?m)^(\\d+): \\{");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile Duration chunkDelay = Duration.ZERO;
+    private volatile double rateLimitRate;
+    private volatile Duration retryAfter = Duration.ofSeconds(1);
+    private volatile double serverErrorRate;
+    private volatile Function<String, String> responder = OpenAiStubServer::defaultAnswer;
+    private final Queue<Integer> scriptedStatuses = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong streamed = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+
+    public OpenAiStubServer() throws IOException {
+        this(0);
+    }
+
+    public OpenAiStubServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("openai-stub-");
+        threadFactory.setDaemon(true);
+        // One thread per in-flight request, so simulated latency never queues other requests
+        this.executor = Executors.newCachedThreadPool(threadFactory);
+        server.setExecutor(executor);
+        server.createContext(COMPLETIONS_PATH, this::handle);
+        server.start();
+    }
+
+    /** Base URL to configure as {@code app.openai.base-url}. */
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/v1";
+    }
+
+    /** Delay before the response (or, when streaming, before the first chunk). */
+    public OpenAiStubServer latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** Delay between streamed chunks after the first. */
+    public OpenAiStubServer chunkDelay(Duration chunkDelay) {
+        this.chunkDelay = chunkDelay;
+        return this;
+    }
+
+    public OpenAiStubServer rateLimitRate(double rateLimitRate) {
+        this.rateLimitRate = rateLimitRate;
+        return this;
+    }
+
+    public OpenAiStubServer retryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    public OpenAiStubServer serverErrorRate(double serverErrorRate) {
+        this.serverErrorRate = serverErrorRate;
+        return this;
+    }
+
+    /** Maps the prompt to the assistant's answer. */
+    public OpenAiStubServer responder(Function<String, String> responder) {
+        this.responder = responder;
+        return this;
+    }
+
+    /** Answers the next {@code times} requests with {@code status} before any random failures apply. */
+    public OpenAiStubServer failNext(int status, int times) {
+        for (int i = 0; i < times; i++) {
+            scriptedStatuses.add(status);
+        }
+        return this;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("requests", requests.get());
+        stats.put("streamed", streamed.get());
+        stats.put("rateLimited", rateLimited.get());
+        stats.put("serverErrors", serverErrors.get());
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, error("Only POST is supported", "invalid_request_error"));
+                return;
+            }
+            requests.incrementAndGet();
+            JsonNode request = JSON.readTree(exchange.getRequestBody());
+            sleep(latency.sample(ThreadLocalRandom.current()));
+
+            Integer scripted = scriptedStatuses.poll();
+            int status = scripted != null ? scripted : randomFailure();
+            if (status == 429) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(Math.max(1, retryAfter.toSeconds())));
+                exchange.getResponseHeaders().add("retry-after-ms", String.valueOf(retryAfter.toMillis()));
+                respond(exchange, 429, error("Rate limit reached for requests", "requests"));
+                return;
+            }
+            if (status != 200) {
+                serverErrors.incrementAndGet();
+                respond(exchange, status, error("The server had an error while processing your request", "server_error"));
+                return;
+            }
+
+            String model = request.path("model").asText("stub");
+            String prompt = request.path("messages").path(0).path("content").asText("");
+            String answer = responder.apply(prompt);
+            if (request.path("stream").asBoolean(false)) {
+                streamed.incrementAndGet();
+                stream(exchange, model, answer);
+            } else {
+                respond(exchange, 200, completion(model, prompt, answer));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private int randomFailure() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < rateLimitRate) {
+            return 429;
+        }
+        return roll < rateLimitRate + serverErrorRate ? 503 : 200;
+    }
+
+    private void stream(HttpExchange exchange, String model, String answer) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        List<String> pieces = new ArrayList<>();
+        pieces.add(null); // the first chunk only carries the role, as OpenAI's does
+        // Word-sized deltas, keeping the separators, like the real token stream
+        Matcher words = Pattern.compile("\\S+\\s*|\\s+").matcher(answer);
+        while (words.find()) {
+            pieces.add(words.group());
+        }
+        for (int i = 0; i < pieces.size(); i++) {
+            if (i > 1) {
+                sleep(chunkDelay);
+            }
+            writeEvent(body, JSON.writeValueAsString(chunk(model, pieces.get(i))));
+        }
+        writeEvent(body, "[DONE]");
+    }
+
+    private static void writeEvent(OutputStream body, String data) throws IOException {
+        body.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static ObjectNode chunk(String model, String content) {
+        ObjectNode chunk = JSON.createObjectNode()
+                .put("id", "chatcmpl-stub")
+                .put("object", "chat.completion.chunk")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ObjectNode delta = JSON.createObjectNode();
+        if (content == null) {
+            delta.put("role", "assistant");
+        } else {
+            delta.put("content", content);
+        }
+        chunk.putArray("choices").addObject().put("index", 0).set("delta", delta);
+        return chunk;
+    }
+
+    private static ObjectNode completion(String model, String prompt, String answer) {
+        ObjectNode completion = JSON.createObjectNode()
+                .put("id", "chatcmpl-stub")
+                .put("object", "chat.completion")
+                .put("created", System.currentTimeMillis() / 1000)
+                .put("model", model);
+        ArrayNode choices = completion.putArray("choices");
+        ObjectNode choice = choices.addObject().put("index", 0).put("finish_reason", "stop");
+        choice.putObject("message").put("role", "assistant").put("content", answer);
+        int promptTokens = prompt.length() / 4;
+        int completionTokens = answer.length() / 4;
+        completion.putObject("usage")
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+        return completion;
+    }
+
+    private static ObjectNode error(String message, String type) {
+        ObjectNode body = JSON.createObjectNode();
+        body.putObject("error").put("message", message).put("type", type);
+        return body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = JSON.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    static String defaultAnswer(String prompt) {
+        Matcher dogs = BATCHED_DOG.matcher(prompt);
+        if (!dogs.find()) {
+            return "YES\nStub prediction: friendly dog, safe to pet.";
+        }
+        StringBuilder lines = new StringBuilder();
+        do {
+            lines.append(dogs.group(1)).append("|YES|Stub prediction: friendly dog, safe to pet.\n");
+        } while (dogs.find());
+        return lines.toString();
+    }
+
+    private static void sleep(Duration duration) throws InterruptedException {
+        if (!duration.isZero() && !duration.isNegative()) {
+            Thread.sleep(duration.toMillis(), (int) (duration.toNanos() % 1_000_000));
+        }
+    }
+
+    /** Response latency model. */
+    @FunctionalInterface
+    public interface LatencyDistribution {
+
+        Duration sample(Random random);
+
+        static LatencyDistribution none() {
+            return random -> Duration.ZERO;
+        }
+
+        static LatencyDistribution fixed(Duration latency) {
+            return random -> latency;
+        }
+
+        static LatencyDistribution uniform(Duration min, Duration max) {
+            return random -> Duration.ofNanos(min.toNanos() + (long) (random.nextDouble() * (max.toNanos() - min.toNanos())));
+        }
+
+        /**
+         * Log-normal latency with the given median and 99th percentile: the long right tail of
+         * real model latency, which is what tail-latency benchmarks need to reproduce.
+         */
+        static LatencyDistribution logNormal(Duration median, Duration p99) {
+            double mu = Math.log(median.toNanos());
+            double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / 2.3263;
+            return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+        }
+
+        /** Parses {@code none}, {@code fixed:200ms}, {@code uniform:100ms:300ms} or {@code lognormal:400ms:3s}. */
+        static LatencyDistribution parse(String spec) {
+            String[] parts = spec.split(":");
+            return switch (parts[0]) {
+                case "none" -> none();
+                case "fixed" -> fixed(DurationStyle.detectAndParse(parts[1]));
+                case "uniform" -> uniform(DurationStyle.detectAndParse(parts[1]), DurationStyle.detectAndParse(parts[2]));
+                case "lognormal" -> logNormal(DurationStyle.detectAndParse(parts[1]), DurationStyle.detectAndParse(parts[2]));
+                default -> throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+            };
+        }
+    }
+
+    /**
+     * Options: {@code --port=8089 --latency=lognormal:400ms:3s --chunk-delay=20ms
+     * --rate-limit-rate=0.02 --retry-after=1s --error-rate=0.01}.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+        OpenAiStubServer stub = new OpenAiStubServer(Integer.parseInt(options.getOrDefault("port", "8089")))
+                .latency(LatencyDistribution.parse(options.getOrDefault("latency", "lognormal:400ms:3s")))
+                .chunkDelay(DurationStyle.detectAndParse(options.getOrDefault("chunk-delay", "20ms")))
+                .rateLimitRate(Double.parseDouble(options.getOrDefault("rate-limit-rate", "0")))
+                .retryAfter(DurationStyle.detectAndParse(options.getOrDefault("retry-after", "1s")))
+                .serverErrorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")));
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("OpenAI stub listening at " + stub.baseUrl() + " with " + options);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.service.ChatGptService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAiStubServerTest {
+
+    private OpenAiStubServer stub;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new OpenAiStubServer();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void complete_AgainstStub_ReturnsStubAnswer() {
+        // Given
+        OpenAiClient client = new OpenAiClient("test-key", stub.baseUrl());
+
+        // When
+        String content = client.complete(PredictionPrompts.singleDog("{\"breed\":\"Beagle\"}"), 50);
+
+        // Then
+        assertEquals(OpenAiStubServer.defaultAnswer("single"), content);
+        assertEquals(1L, stub.getStats().get("requests"));
+    }
+
+    @Test
+    void complete_WhenRateLimitedOnce_RetriesAfterRetryAfter() {
+        // Given
+        stub.failNext(429, 1).retryAfter(Duration.ofMillis(200));
+        OpenAiClient client = new OpenAiClient("test-key", stub.baseUrl());
+
+        // When
+        long started = System.nanoTime();
+        String content = client.complete("Hello", 10);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Then
+        assertNotNull(content);
+        assertTrue(elapsedMillis >= 200, "waited " + elapsedMillis + "ms");
+        assertEquals(2L, stub.getStats().get("requests"));
+        assertEquals(1L, stub.getStats().get("rateLimited"));
+    }
+
+    @Test
+    void complete_WhenServerKeepsFailing_ThrowsAfterMaxAttempts() {
+        // Given
+        stub.serverErrorRate(1.0);
+        OpenAiClient client = new OpenAiClient("test-key", stub.baseUrl(), new OpenAiRateLimiter(),
+            2, Duration.ofSeconds(10), Duration.ofSeconds(5));
+
+        // When & Then
+        WebClientResponseException e = assertThrows(WebClientResponseException.class, () -> client.complete("Hello", 10));
+        assertEquals(503, e.getStatusCode().value());
+        assertEquals(2L, stub.getStats().get("serverErrors"));
+    }
+
+    @Test
+    void complete_WithBatchPrompt_AnswersEveryDog() {
+        // Given
+        OpenAiClient client = new OpenAiClient("test-key", stub.baseUrl());
+        String prompt = PredictionPrompts.batch(List.of("{\"breed\":\"Beagle\"}", "{\"breed\":\"Poodle\"}"));
+
+        // When
+        String content = client.complete(prompt, PredictionPrompts.batchMaxTokens(2));
+
+        // Then
+        List<String> lines = Arrays.asList(content.split("\n"));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("1|YES|"));
+        assertTrue(lines.get(1).startsWith("2|YES|"));
+    }
+
+    @Test
+    void stream_AgainstStub_EmitsAnswerInChunks() {
+        // Given
+        stub.responder(prompt -> "NO\nHas a long bite record.").chunkDelay(Duration.ofMillis(5));
+        OpenAiClient client = new OpenAiClient("test-key", stub.baseUrl());
+
+        // When
+        List<String> deltas = client.stream("Hello", 50).collectList().block(Duration.ofSeconds(10));
+
+        // Then
+        assertNotNull(deltas);
+        assertTrue(deltas.size() > 1);
+        assertEquals("NO\nHas a long bite record.", String.join("", deltas));
+        assertEquals(1L, stub.getStats().get("streamed"));
+    }
+
+    @Test
+    void predictDogSafety_AgainstStub_ParsesStubVerdict() {
+        // Given
+        stub.responder(prompt -> "CAUTIOUSLY\nStub says take care.");
+        ChatGptService service = new ChatGptService(new OpenAiClient("test-key", stub.baseUrl()));
+        ChatGptDogDto dog = new ChatGptDogDto();
+        dog.setName("Rex");
+        dog.setBreed("Beagle");
+        dog.setAge(4);
+        dog.setTemperament("Likes long walks");
+
+        // When
+        SafetyPrediction result = service.predictDogSafety(dog);
+
+        // Then
+        assertEquals(SafetyLevel.CAUTIOUSLY, result.getIsSafeToPet());
+        assertEquals("Stub says take care.", result.getSafetyExplanation());
+    }
+
+    @Test
+    void logNormal_SamplesMatchConfiguredMedianAndTail() {
+        // Given
+        OpenAiStubServer.LatencyDistribution latency =
+            OpenAiStubServer.LatencyDistribution.logNormal(Duration.ofMillis(400), Duration.ofSeconds(3));
+        Random random = new Random(42);
+
+        // When
+        long[] samples = new long[20_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = latency.sample(random).toMillis();
+        }
+        Arrays.sort(samples);
+
+        // Then
+        assertEquals(400, samples[samples.length / 2], 20);
+        assertEquals(3000, samples[(int) (samples.length * 0.99)], 300);
+    }
+
+    @Test
+    void parse_WithUnknownDistribution_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> OpenAiStubServer.LatencyDistribution.parse("pareto:1s"));
+        assertEquals(Duration.ofMillis(200),
+            OpenAiStubServer.LatencyDistribution.parse("fixed:200ms").sample(new Random()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PredictionBatcherTest {
+
+    @Mock
+    private OpenAiClient openAiClient;
+
+    private PredictionBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.destroy();
+        }
+    }
+
+    @Test
+    void submit_WhenBatchFills_SendsOnePromptAndDemultiplexesResults() throws Exception {
+        batcher = new PredictionBatcher(openAiClient, true, 3, Duration.ofSeconds(30), 2);
+        when(openAiClient.complete(anyString(), anyInt()))
+            .thenReturn("1|YES|Therapy dog\n2|NO|Bites\n3|CAUTIOUSLY|Unknown");
+
+        CompletableFuture<SafetyPrediction> first = batcher.submit("{\"breed\":\"Golden\"}");
+        CompletableFuture<SafetyPrediction> second = batcher.submit("{\"breed\":\"Mix\"}");
+        CompletableFuture<SafetyPrediction> third = batcher.submit("{\"breed\":\"Shepherd\"}");
+
+        assertEquals(SafetyLevel.YES, first.get(5, TimeUnit.SECONDS).getIsSafeToPet());
+        assertEquals(SafetyLevel.NO, second.get(5, TimeUnit.SECONDS).getIsSafeToPet());
+        assertEquals(SafetyLevel.CAUTIOUSLY, third.get(5, TimeUnit.SECONDS).getIsSafeToPet());
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(openAiClient, times(1)).complete(prompt.capture(), anyInt());
+        assertTrue(prompt.getValue().contains("1: {\"breed\":\"Golden\"}"));
+        assertTrue(prompt.getValue().contains("3: {\"breed\":\"Shepherd\"}"));
+        assertEquals(1L, batcher.getStats().get("batchesSent"));
+    }
+
+    @Test
+    void submit_WhenWindowElapses_FlushesPartialBatch() throws Exception {
+        batcher = new PredictionBatcher(openAiClient, true, 10, Duration.ofMillis(20), 2);
+        when(openAiClient.complete(anyString(), anyInt())).thenReturn("1|YES|Friendly\n2|NO|Aggressive");
+
+        CompletableFuture<SafetyPrediction> first = batcher.submit("{\"name\":\"a\"}");
+        CompletableFuture<SafetyPrediction> second = batcher.submit("{\"name\":\"b\"}");
+
+        assertEquals(SafetyLevel.YES, first.get(5, TimeUnit.SECONDS).getIsSafeToPet());
+        assertEquals(SafetyLevel.NO, second.get(5, TimeUnit.SECONDS).getIsSafeToPet());
+    }
+
+    @Test
+    void submit_WhenDogMissingFromAnswer_CompletesWithNullForFallback() throws Exception {
+        batcher = new PredictionBatcher(openAiClient, true, 2, Duration.ofSeconds(30), 1);
+        when(openAiClient.complete(anyString(), anyInt())).thenReturn("1|YES|Friendly\nI could not assess dog 2.");
+
+        CompletableFuture<SafetyPrediction> first = batcher.submit("{\"name\":\"a\"}");
+        CompletableFuture<SafetyPrediction> second = batcher.submit("{\"name\":\"b\"}");
+
+        assertEquals(SafetyLevel.YES, first.get(5, TimeUnit.SECONDS).getIsSafeToPet());
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1L, batcher.getStats().get("unparsedDogs"));
+    }
+
+    @Test
+    void submit_WhenBatchRequestFails_FailsEveryCaller() {
+        batcher = new PredictionBatcher(openAiClient, true, 2, Duration.ofSeconds(30), 1);
+        when(openAiClient.complete(anyString(), anyInt())).thenThrow(new IllegalStateException("timeout"));
+
+        CompletableFuture<SafetyPrediction> first = batcher.submit("{\"name\":\"a\"}");
+        CompletableFuture<SafetyPrediction> second = batcher.submit("{\"name\":\"b\"}");
+
+        assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_WithSingleDogInWindow_LeavesItToSingleDogPrompt() throws Exception {
+        batcher = new PredictionBatcher(openAiClient, true, 10, Duration.ofMillis(10), 1);
+
+        assertNull(batcher.submit("{\"name\":\"a\"}").get(5, TimeUnit.SECONDS));
+        verifyNoInteractions(openAiClient);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void get_AfterPut_ReturnsPredictionAndCountsHit() {
+        PredictionCache cache = newCache(PredictionCache.DEFAULT_MAX_WEIGHT_BYTES, Duration.ofHours(1));
+        SafetyPrediction prediction = new SafetyPrediction(SafetyLevel.YES, "Gentle");
+
+        cache.put(key("dog"), prediction);
+
+        assertSame(prediction, cache.get(key("dog")));
+        assertNull(cache.get(key("other")));
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void put_BeyondMaxWeight_EvictsAndStaysWithinBound() {
+        long maxWeight = 10_000;
+        PredictionCache cache = newCache(maxWeight, Duration.ofHours(1));
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(key("dog-" + i), new SafetyPrediction(SafetyLevel.CAUTIOUSLY, "Explanation number " + i));
+        }
+
+        Map<String, Object> stats = cache.getStats();
+        assertTrue((Long) stats.get("weightBytes") <= maxWeight);
+        assertTrue((Long) stats.get("evictions") > 0);
+    }
+
+    @Test
+    void get_AfterTtl_ReturnsNull() {
+        PredictionCache cache = newCache(PredictionCache.DEFAULT_MAX_WEIGHT_BYTES, Duration.ofMinutes(10));
+        cache.put(key("dog"), new SafetyPrediction(SafetyLevel.NO, "Bites"));
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertNull(cache.get(key("dog")));
+    }
+
+    @Test
+    void weigh_AccountsForKeyAndValueLength() {
+        int small = PredictionCache.weigh(key("k"), new SafetyPrediction(SafetyLevel.YES, "short"));
+        int large = PredictionCache.weigh(key("k"), new SafetyPrediction(SafetyLevel.YES, "a much longer explanation text"));
+
+        assertTrue(large > small);
+        assertTrue(PredictionCache.weigh(key("k"), new SafetyPrediction(null, null)) > 0);
+    }
+
+    private static PredictionKey key(String value) {
+        return PredictionKey.hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PredictionCache newCache(long maxWeight, Duration ttl) {
+        return new PredictionCache(maxWeight, ttl, nanos::get, Runnable::run);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.springdogs.prediction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionHedgerTest {
+
+    private PredictionHedger hedger;
+
+    @AfterEach
+    void tearDown() {
+        if (hedger != null) {
+            hedger.destroy();
+        }
+    }
+
+    @Test
+    void execute_WhenDisabled_RunsCallOnCallerThread() {
+        hedger = PredictionHedger.disabled();
+        Thread caller = Thread.currentThread();
+
+        String result = hedger.execute(() -> Thread.currentThread() == caller ? "caller" : "other");
+
+        assertEquals("caller", result);
+        assertEquals(0L, hedger.getStats().get("calls"));
+    }
+
+    @Test
+    void execute_BeforeEnoughSamples_DoesNotHedge() throws Exception {
+        // Given
+        hedger = new PredictionHedger(true, 0.5, Duration.ofMillis(10), 1.0, 5);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = hedger.execute(() -> {
+            attempts.incrementAndGet();
+            sleep(100);
+            return "slow";
+        });
+
+        // Then
+        assertEquals("slow", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0L, hedger.getStats().get("hedgesSent"));
+    }
+
+    @Test
+    void execute_WhenFirstAttemptIsSlow_ReturnsHedgeAndCancelsFirst() throws Exception {
+        // Given
+        hedger = new PredictionHedger(true, 0.5, Duration.ofMillis(20), 1.0, 5);
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch firstCancelled = new CountDownLatch(1);
+
+        // When
+        long started = System.nanoTime();
+        String result = hedger.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    firstCancelled.countDown();
+                    throw new IllegalStateException("cancelled");
+                }
+                return "first";
+            }
+            return "hedge";
+        });
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Then
+        assertEquals("hedge", result);
+        assertTrue(elapsedMillis < 2_000, "took " + elapsedMillis + "ms");
+        assertTrue(firstCancelled.await(5, TimeUnit.SECONDS));
+        assertEquals(1L, hedger.getStats().get("hedgesSent"));
+        assertEquals(1L, hedger.getStats().get("hedgeWins"));
+    }
+
+    @Test
+    void execute_WhenBudgetSpent_WaitsForFirstAttempt() throws Exception {
+        // Given - one hedge earned per ten calls
+        hedger = new PredictionHedger(true, 0.5, Duration.ofMillis(20), 0.1, 5);
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String result = hedger.execute(() -> {
+            attempts.incrementAndGet();
+            sleep(200);
+            return "slow";
+        });
+
+        // Then
+        assertEquals("slow", result);
+        assertEquals(1, attempts.get());
+        assertEquals(0L, hedger.getStats().get("hedgesSent"));
+        assertEquals(1L, hedger.getStats().get("budgetExhausted"));
+    }
+
+    @Test
+    void execute_WhenBothAttemptsFail_ThrowsFirstAttemptsFailure() throws Exception {
+        // Given
+        hedger = new PredictionHedger(true, 0.5, Duration.ofMillis(20), 1.0, 5);
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When & Then
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> hedger.execute(() -> {
+            int attempt = attempts.incrementAndGet();
+            sleep(attempt == 1 ? 200 : 0);
+            throw new IllegalStateException("attempt " + attempt);
+        }));
+        assertEquals("attempt 1", e.getMessage());
+        assertEquals(1L, hedger.getStats().get("hedgesSent"));
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 5; i++) {
+            hedger.execute(() -> "fast");
+        }
+        assertNotNull(hedger.getStats().get("hedgeDelayMillis"));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PredictionKeyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionKeyTest.class);
+
+    private static final List<String> BREEDS = List.of("Golden Retriever", "German Shepherd", "Beagle", "Boxer",
+            "Siberian Husky", "French Bulldog", "Labrador Retriever", "Poodle");
+    private static final List<String> COLORS = List.of("Black", "Brown", "White & Gray", "Golden", "Brindle");
+    private static final List<String> TEMPERAMENTS = List.of(
+            "Friendly and playful", "Loyal, protective, and energetic", "Shy with strangers, warms up slowly",
+            "Territorial, aggressive. Multiple bites on record", "Gentle giant who loves children");
+
+    @Test
+    void of_IgnoresNameColorCaseAndWhitespace() {
+        ChatGptDogDto dog = dog("Buddy", "Golden Retriever", 3, "Golden", 30.0, "Friendly and playful");
+        ChatGptDogDto variant = dog("Max", "  golden  retriever", 3, "Black", 30.00, "friendly   and Playful ");
+
+        assertEquals(PredictionKey.of(dog), PredictionKey.of(variant));
+    }
+
+    @Test
+    void of_DistinguishesPredictionRelevantFields() {
+        ChatGptDogDto dog = dog("Buddy", "Golden Retriever", 3, "Golden", 30.0, "Friendly and playful");
+
+        assertNotEquals(PredictionKey.of(dog), PredictionKey.of(dog("Buddy", "Golden Retriever", 4, "Golden", 30.0, "Friendly and playful")));
+        assertNotEquals(PredictionKey.of(dog), PredictionKey.of(dog("Buddy", "Golden Retriever", 3, "Golden", 31.0, "Friendly and playful")));
+        assertNotEquals(PredictionKey.of(dog), PredictionKey.of(dog("Buddy", "Golden Retriever", 3, "Golden", null, "Friendly and playful")));
+        // Field boundaries are kept, so text cannot shift from one field into the next
+        assertNotEquals(PredictionKey.of(dog("A", "Boxer Friendly", 3, "Black", 30.0, "")),
+                PredictionKey.of(dog("A", "Boxer", 3, "Black", 30.0, "Friendly")));
+    }
+
+    @Test
+    void hash_CoversEveryTailLengthDeterministically() {
+        Set<PredictionKey> keys = new HashSet<>();
+        byte[] data = new byte[40];
+        for (int length = 0; length <= data.length; length++) {
+            data[Math.max(0, length - 1)] = (byte) length;
+            byte[] prefix = Arrays.copyOf(data, length);
+            assertEquals(PredictionKey.hash(prefix), PredictionKey.hash(prefix.clone()));
+            keys.add(PredictionKey.hash(prefix));
+        }
+        assertEquals(41, keys.size());
+        assertEquals(32, new PredictionKey(0L, -1L).toHex().length());
+    }
+
+    @Test
+    void syntheticDataset_CanonicalKeysUseLessMemoryAndHitMoreOften() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Random random = new Random(42);
+        int requests = 20_000;
+
+        Set<String> jsonKeys = new HashSet<>();
+        Set<PredictionKey> canonicalKeys = new HashSet<>();
+        Set<List<Object>> profiles = new HashSet<>();
+        long jsonKeyBytes = 0;
+        int jsonHits = 0;
+        int canonicalHits = 0;
+
+        for (int i = 0; i < requests; i++) {
+            String breed = BREEDS.get(random.nextInt(BREEDS.size()));
+            int age = 1 + random.nextInt(5);
+            String color = COLORS.get(random.nextInt(COLORS.size()));
+            double weight = 20.0 + 5 * random.nextInt(3);
+            String temperament = TEMPERAMENTS.get(random.nextInt(TEMPERAMENTS.size()));
+            profiles.add(List.of(breed, age, weight, temperament));
+            ChatGptDogDto dog = dog("Dog " + random.nextInt(500), breed, age, color, weight,
+                    perturb(temperament, random));
+
+            // The previous key: the whole DTO serialized to JSON, name included
+            String jsonKey = objectMapper.writeValueAsString(legacyFields(dog));
+            if (!jsonKeys.add(jsonKey)) {
+                jsonHits++;
+            } else {
+                jsonKeyBytes += retainedStringBytes(jsonKey);
+            }
+            if (!canonicalKeys.add(PredictionKey.of(dog))) {
+                canonicalHits++;
+            }
+        }
+
+        long canonicalKeyBytes = (long) canonicalKeys.size() * PredictionKey.RETAINED_BYTES;
+        double jsonHitRate = (double) jsonHits / requests;
+        double canonicalHitRate = (double) canonicalHits / requests;
+        logger.debug("JSON keys: {} distinct, {} bytes, hit rate {}; canonical keys: {} distinct, {} bytes, hit rate {}",
+                jsonKeys.size(), jsonKeyBytes, jsonHitRate, canonicalKeys.size(), canonicalKeyBytes, canonicalHitRate);
+
+        // One key per distinct profile: names, colors and perturbations must not add keys
+        assertEquals(profiles.size(), canonicalKeys.size());
+        assertTrue(canonicalHitRate > jsonHitRate + 0.5);
+        assertTrue(canonicalKeyBytes * 10 < jsonKeyBytes);
+    }
+
+    private static String perturb(String temperament, Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> temperament.toLowerCase();
+            case 1 -> "  " + temperament + " ";
+            case 2 -> temperament.replace(" ", "  ");
+            default -> temperament;
+        };
+    }
+
+    private static Map<String, Object> legacyFields(ChatGptDogDto dog) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", dog.getName());
+        fields.put("breed", dog.getBreed());
+        fields.put("age", dog.getAge());
+        fields.put("color", dog.getColor());
+        fields.put("weight", dog.getWeight());
+        fields.put("temperament", dog.getTemperament());
+        return fields;
+    }
+
+    // Compact (Latin-1) String: object header and fields plus the padded backing byte[]
+    private static long retainedStringBytes(String value) {
+        return 24 + ((16 + value.length() + 7) / 8) * 8;
+    }
+
+    private static ChatGptDogDto dog(String name, String breed, Integer age, String color, Double weight,
+                                     String temperament) {
+        return new ChatGptDogDto(name, breed, age, color, weight, temperament);
+    }
+}
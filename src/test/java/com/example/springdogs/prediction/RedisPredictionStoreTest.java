@@ -0,0 +1,124 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisPredictionStoreTest {
+
+    private static final PredictionKey BEAGLE = new PredictionKey(1L, 2L);
+    private static final PredictionKey BOXER = new PredictionKey(3L, 4L);
+    private static final PredictionKey DOG = new PredictionKey(5L, 6L);
+    private static final PredictionKey OTHER = new PredictionKey(7L, 8L);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redis;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        redis = template(port);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void get_AfterPut_ReturnsStoredPredictionWithTtl() {
+        RedisPredictionStore store = newStore(redis);
+
+        store.put(BEAGLE, new SafetyPrediction(SafetyLevel.YES, "Friendly"));
+        SafetyPrediction result = store.get(BEAGLE);
+
+        assertEquals(new SafetyPrediction(SafetyLevel.YES, "Friendly"), result);
+        assertNull(store.get(BOXER));
+        Long ttlSeconds = redis.getExpire(store.redisKey(BEAGLE));
+        assertTrue(ttlSeconds > 0 && ttlSeconds <= Duration.ofDays(1).toSeconds());
+    }
+
+    @Test
+    void get_OnAnotherNode_ReadsThroughSharedStoreAndPromotesLocally() {
+        PredictionCache nodeA = newCache(newStore(redis));
+        RedisPredictionStore storeB = newStore(redis);
+        PredictionCache nodeB = newCache(storeB);
+
+        nodeA.put(DOG, new SafetyPrediction(SafetyLevel.NO, "Bites"));
+
+        assertEquals(SafetyLevel.NO, nodeB.get(DOG).getIsSafeToPet());
+        assertEquals(SafetyLevel.NO, nodeB.get(DOG).getIsSafeToPet());
+        // The second lookup was answered by node B's local cache
+        assertEquals(1L, storeB.getStats().get("hits"));
+    }
+
+    @Test
+    void get_WithUnreachableRedis_DegradesToMissAndBacksOff() throws IOException {
+        LettuceConnectionFactory unreachable = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", freePort()));
+        unreachable.afterPropertiesSet();
+        try {
+            RedisPredictionStore store = newStore(new StringRedisTemplate(unreachable));
+            PredictionCache cache = newCache(store);
+
+            cache.put(DOG, new SafetyPrediction(SafetyLevel.YES, "Gentle"));
+            assertNull(store.get(OTHER));
+
+            // The local level keeps working and Redis is not retried until the backoff passes
+            assertEquals(SafetyLevel.YES, cache.get(DOG).getIsSafeToPet());
+            Map<String, Object> stats = store.getStats();
+            assertEquals(false, stats.get("available"));
+            assertEquals(1L, stats.get("errors"));
+            assertEquals(1L, stats.get("bypassed"));
+
+            nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+            assertNull(store.get(OTHER));
+            assertEquals(2L, store.getStats().get("errors"));
+        } finally {
+            unreachable.destroy();
+        }
+    }
+
+    private RedisPredictionStore newStore(StringRedisTemplate template) {
+        return new RedisPredictionStore(template, true, Duration.ofDays(1), "test:prediction:",
+                Duration.ofSeconds(30), nanos::get);
+    }
+
+    private PredictionCache newCache(RedisPredictionStore store) {
+        return new PredictionCache(PredictionCache.DEFAULT_MAX_WEIGHT_BYTES, Duration.ofHours(1),
+                PredictionCache.DEFAULT_FAILURE_TTL, store, Ticker.systemTicker(), Runnable::run);
+    }
+
+    private StringRedisTemplate template(int port) {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
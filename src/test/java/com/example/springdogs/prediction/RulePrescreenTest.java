@@ -0,0 +1,91 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RulePrescreenTest {
+
+    private final RulePrescreen prescreen = new RulePrescreen(true);
+
+    @Test
+    void screen_WithClearlyFriendlyTemperament_ReturnsYes() {
+        SafetyPrediction result = prescreen.screen(dog("Everyone's best friend - gentle, loving, and great with kids"));
+
+        assertNotNull(result);
+        assertEquals(SafetyLevel.YES, result.getIsSafeToPet());
+        assertTrue(result.getSafetyExplanation().contains("gentle-temperament"));
+    }
+
+    @Test
+    void screen_WithBiteHistory_ReturnsNo() {
+        SafetyPrediction result = prescreen.screen(dog("Territorial and aggressive. Multiple bites on record"));
+
+        assertNotNull(result);
+        assertEquals(SafetyLevel.NO, result.getIsSafeToPet());
+    }
+
+    @Test
+    void screen_WithWarningContainingNegationWord_ReturnsNo() {
+        SafetyPrediction result = prescreen.screen(dog("Owner warns NEVER APPROACH, extremely aggressive"));
+
+        assertNotNull(result);
+        assertEquals(SafetyLevel.NO, result.getIsSafeToPet());
+    }
+
+    @Test
+    void screen_WithNegatedOrMixedSignals_Escalates() {
+        assertNull(prescreen.screen(dog("Therapy dog, zero aggressive incidents")));
+        assertNull(prescreen.screen(dog("Not friendly with strangers")));
+        assertNull(prescreen.screen(dog("Friendly but very protective of food")));
+        assertNull(prescreen.screen(dog("Loyal, protective, and energetic")));
+        assertNull(prescreen.screen(dog("Playful")));
+    }
+
+    @Test
+    void screen_WithImplausibleData_Escalates() {
+        ChatGptDogDto dog = dog("Friendly and gentle");
+        dog.setAge(-5);
+
+        assertNull(prescreen.screen(dog));
+    }
+
+    @Test
+    void screen_WhenDisabled_AlwaysEscalates() {
+        assertNull(new RulePrescreen(false).screen(dog("Friendly and gentle")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getStats_CountsRuleHitsAndEscalations() {
+        prescreen.screen(dog("Gentle giant"));
+        prescreen.screen(dog("Certified therapy dog"));
+        prescreen.screen(dog("Has bitten twice"));
+        prescreen.screen(dog("Playful"));
+
+        Map<String, Object> stats = prescreen.getStats();
+
+        assertEquals(4L, stats.get("screened"));
+        assertEquals(3L, stats.get("absorbed"));
+        Map<String, Long> hits = (Map<String, Long>) stats.get("ruleHits");
+        assertEquals(1L, hits.get("gentle-temperament"));
+        assertEquals(1L, hits.get("therapy-work"));
+        assertEquals(1L, hits.get("bite-history"));
+        assertEquals(1L, ((Map<String, Long>) stats.get("escalated")).get("NO_MATCH"));
+    }
+
+    private ChatGptDogDto dog(String temperament) {
+        ChatGptDogDto dog = new ChatGptDogDto();
+        dog.setName("Rex");
+        dog.setBreed("Mixed");
+        dog.setAge(4);
+        dog.setWeight(20.0);
+        dog.setTemperament(temperament);
+        return dog;
+    }
+}
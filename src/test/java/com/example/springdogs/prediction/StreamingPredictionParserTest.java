@@ -0,0 +1,79 @@
+package com.example.springdogs.prediction;
+
+import com.example.springdogs.dto.PredictionStreamEvent;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingPredictionParserTest {
+
+    @Test
+    void accept_EmitsVerdictAsSoonAsItsLineIsComplete() {
+        StreamingPredictionParser parser = new StreamingPredictionParser();
+
+        assertTrue(parser.accept("YE").isEmpty());
+        List<PredictionStreamEvent> events = parser.accept("S\n");
+
+        assertEquals(List.of(PredictionStreamEvent.verdict(SafetyLevel.YES)), events);
+    }
+
+    @Test
+    void accept_RelaysExplanationIncrementallyWithoutLeadingWhitespace() {
+        StreamingPredictionParser parser = new StreamingPredictionParser();
+        List<PredictionStreamEvent> events = new ArrayList<>();
+
+        for (String delta : List.of("No", "\n\n", "  Has", " a bite", " history.", "\nIgnored line")) {
+            events.addAll(parser.accept(delta));
+        }
+        events.addAll(parser.finish());
+
+        assertEquals(List.of(
+                PredictionStreamEvent.verdict(SafetyLevel.NO),
+                PredictionStreamEvent.explanation("Has"),
+                PredictionStreamEvent.explanation(" a bite"),
+                PredictionStreamEvent.explanation(" history."),
+                PredictionStreamEvent.done(new SafetyPrediction(SafetyLevel.NO, "Has a bite history."))), events);
+    }
+
+    @Test
+    void finish_WithVerdictOnly_UsesDefaultExplanation() {
+        StreamingPredictionParser parser = new StreamingPredictionParser();
+        parser.accept("Cautiously");
+
+        List<PredictionStreamEvent> events = parser.finish();
+
+        assertEquals(PredictionStreamEvent.verdict(SafetyLevel.CAUTIOUSLY), events.get(0));
+        assertEquals(new SafetyPrediction(SafetyLevel.CAUTIOUSLY, "No explanation provided"), parser.getResult());
+    }
+
+    @Test
+    void finish_WithInvalidVerdict_ReportsError() {
+        StreamingPredictionParser parser = new StreamingPredictionParser();
+        assertTrue(parser.accept("Maybe\nHard to say").isEmpty());
+
+        SafetyPrediction result = parser.getResult();
+
+        assertEquals(SafetyLevel.ERROR, result.getIsSafeToPet());
+        assertEquals("Invalid prediction format from ChatGPT: Maybe", result.getSafetyExplanation());
+        assertEquals(PredictionStreamEvent.verdict(SafetyLevel.ERROR), parser.finish().get(0));
+    }
+
+    @Test
+    void getResult_WithEmptyStream_ReportsNoResponse() {
+        assertEquals(new SafetyPrediction(SafetyLevel.ERROR, "API call failed - no response received"),
+                new StreamingPredictionParser().getResult());
+    }
+
+    @Test
+    void deltaContent_ReadsStreamedChunks() {
+        assertEquals("Yes", OpenAiClient.deltaContent(
+                "{\"choices\":[{\"index\":0,\"delta\":{\"content\":\"Yes\"},\"finish_reason\":null}]}"));
+        assertNull(OpenAiClient.deltaContent("{\"choices\":[{\"index\":0,\"delta\":{},\"finish_reason\":\"stop\"}]}"));
+        assertNull(OpenAiClient.deltaContent("not json"));
+    }
+}
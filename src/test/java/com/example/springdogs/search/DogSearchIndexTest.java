@@ -0,0 +1,122 @@
+package com.example.springdogs.search;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.service.ChatGptService;
+import com.example.springdogs.service.DogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogSearchIndexTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @MockBean
+    private ChatGptService chatGptService;
+
+    @BeforeEach
+    void setUp() {
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Friendly"));
+    }
+
+    @Test
+    void findAllDogs_WithSearch_FindsSampleDogsIndexedAtStartup() {
+        Page<DogDto> result = dogService.findAllDogs("retriever", null, PageRequest.of(0, 10));
+
+        assertEquals(2, result.getTotalElements());
+        assertTrue(names(result).containsAll(List.of("Buddy", "Max")));
+    }
+
+    @Test
+    void findAllDogs_WithPartialLastWord_MatchesPrefix() {
+        Page<DogDto> result = dogService.findAllDogs("german shep", null, PageRequest.of(0, 10));
+
+        assertEquals(List.of("Luna"), names(result));
+    }
+
+    @Test
+    void findAllDogs_WithSearch_RanksNameMatchesAboveTemperamentMatches() {
+        // Given - one dog named for the word, one that only mentions it
+        dogService.saveDog(newDog("Thunder", "Terrier", "Calm"));
+        dogService.saveDog(newDog("Rex", "Terrier", "Hides from thunder"));
+
+        // When
+        Page<DogDto> result = dogService.findAllDogs("thunder", null, PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of("Thunder", "Rex"), names(result));
+    }
+
+    @Test
+    void findAllDogs_AfterUpdateAndDelete_ReflectsCommittedChanges() {
+        // Given
+        Long id = dogService.saveDog(newDog("Pepper", "Whippet", "Quick")).getId();
+        assertEquals(1, dogService.findAllDogs("whippet", null, PageRequest.of(0, 10)).getTotalElements());
+
+        // When
+        dogService.updateDog(id, newDog("Pepper", "Greyhound", "Quick"));
+
+        // Then
+        assertEquals(0, dogService.findAllDogs("whippet", null, PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(List.of("Pepper"), names(dogService.findAllDogs("greyhound", null, PageRequest.of(0, 10))));
+
+        dogService.deleteDog(id);
+        assertEquals(0, dogService.findAllDogs("greyhound", null, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void findAllDogs_WithSearchAndSort_PagesInRequestedOrder() {
+        // Given
+        for (String name : List.of("Delta", "Alpha", "Charlie", "Bravo")) {
+            dogService.saveDog(newDog(name, "Vizsla", "Alert"));
+        }
+
+        // When
+        Page<DogDto> first = dogService.findAllDogs("vizsla", null, PageRequest.of(0, 3, Sort.by("name")));
+        Page<DogDto> second = dogService.findAllDogs("vizsla", null, PageRequest.of(1, 3, Sort.by("name")));
+
+        // Then
+        assertEquals(4, first.getTotalElements());
+        assertEquals(List.of("Alpha", "Bravo", "Charlie"), names(first));
+        assertEquals(List.of("Delta"), names(second));
+    }
+
+    @Test
+    void findAllDogs_WithOnlyPunctuation_ReturnsEmptyPage() {
+        assertTrue(dogService.findAllDogs("&&", null, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    private static List<String> names(Page<DogDto> page) {
+        return page.getContent().stream().map(DogDto::getName).toList();
+    }
+
+    private static DogDto newDog(String name, String breed, String temperament) {
+        DogDto dog = new DogDto();
+        dog.setName(name);
+        dog.setBreed(breed);
+        dog.setAge(3);
+        dog.setColor("Brown");
+        dog.setWeight(15.0);
+        dog.setTemperament(temperament);
+        return dog;
+    }
+}
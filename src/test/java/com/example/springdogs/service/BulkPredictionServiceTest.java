@@ -0,0 +1,203 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.PredictionJob;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.prediction.PredictionPrompts;
+import com.example.springdogs.repository.DogRepository;
+import com.example.springdogs.repository.PredictionJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+    "app.prediction.rescore.page-size=3",
+    "app.prediction.rescore.requests-per-minute=60000"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BulkPredictionServiceTest {
+
+    @Autowired
+    private BulkPredictionService bulkPredictionService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @Autowired
+    private PredictionJobRepository jobRepository;
+
+    @MockBean
+    private ChatGptService chatGptService;
+
+    @Test
+    void start_RescoresEveryDogAndCompletes() throws Exception {
+        // Given
+        when(chatGptService.refreshDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(Optional.of(new SafetyPrediction(SafetyLevel.CAUTIOUSLY, "Re-scored")));
+        long dogCount = dogRepository.count();
+
+        // When
+        Map<String, Object> started = bulkPredictionService.start(2, null);
+        PredictionJob job = awaitStatus(PredictionJob.Status.COMPLETED);
+
+        // Then
+        assertEquals(PredictionJob.Status.RUNNING, started.get("status"));
+        assertEquals(dogCount, job.getTotal());
+        assertEquals(dogCount, job.getProcessed());
+        assertEquals(0, job.getFailed());
+        assertEquals(PredictionPrompts.VERSION, job.getPredictionVersion());
+        assertNotNull(job.getFinishedAt());
+        assertTrue(dogRepository.findAll().stream().allMatch(dog -> dog.getIsSafeToPet() == SafetyLevel.CAUTIOUSLY));
+        verify(chatGptService, times((int) dogCount)).refreshDogSafety(any(ChatGptDogDto.class));
+    }
+
+    @Test
+    void start_SkipsDogsWithCurrentPredictions() throws Exception {
+        // Given - one dog already predicted from its current fields by this prompt and model
+        when(chatGptService.refreshDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(Optional.of(new SafetyPrediction(SafetyLevel.CAUTIOUSLY, "Re-scored")));
+        Dog current = dogRepository.findAll(Sort.by("id")).get(0);
+        DogPredictionWorker.applyPrediction(current, new SafetyPrediction(SafetyLevel.YES, "Already scored"),
+            DogPredictionWorker.fingerprint(ChatGptDogDto.from(current)));
+        dogRepository.save(current);
+        long dogCount = dogRepository.count();
+
+        // When
+        bulkPredictionService.start(null, null);
+        PredictionJob job = awaitStatus(PredictionJob.Status.COMPLETED);
+
+        // Then
+        assertEquals(dogCount, job.getProcessed());
+        assertEquals(0, job.getFailed());
+        assertEquals("Already scored", dogRepository.findById(current.getId()).orElseThrow().getSafetyExplanation());
+        verify(chatGptService, times((int) dogCount - 1)).refreshDogSafety(any(ChatGptDogDto.class));
+    }
+
+    @Test
+    void start_WhenPredictionsFail_KeepsExistingPredictionsAndCountsFailures() throws Exception {
+        // Given
+        when(chatGptService.refreshDogSafety(any(ChatGptDogDto.class))).thenReturn(Optional.empty());
+        List<Dog> before = dogRepository.findAll(Sort.by("id"));
+
+        // When
+        bulkPredictionService.start(null, null);
+        PredictionJob job = awaitStatus(PredictionJob.Status.COMPLETED);
+
+        // Then
+        assertEquals(before.size(), job.getFailed());
+        List<Dog> after = dogRepository.findAll(Sort.by("id"));
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(before.get(i).getIsSafeToPet(), after.get(i).getIsSafeToPet());
+        }
+    }
+
+    @Test
+    void start_WhileJobRunning_ThrowsIllegalState() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(chatGptService.refreshDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(new SafetyPrediction(SafetyLevel.YES, "Friendly"));
+        });
+        bulkPredictionService.start(1, null);
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> bulkPredictionService.start(1, null));
+        release.countDown();
+        awaitStatus(PredictionJob.Status.COMPLETED);
+    }
+
+    @Test
+    void start_WithParallelismAboveMaximum_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> bulkPredictionService.start(100, null));
+        assertTrue(jobRepository.findAll().isEmpty());
+    }
+
+    @Test
+    void pause_StopsAfterCurrentPageAndResumeContinuesFromCheckpoint() throws Exception {
+        // Given - the first page's predictions wait until released
+        CountDownLatch release = new CountDownLatch(1);
+        when(chatGptService.refreshDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(new SafetyPrediction(SafetyLevel.YES, "Friendly"));
+        });
+        long dogCount = dogRepository.count();
+        bulkPredictionService.start(3, null);
+
+        // When - paused while the first page is being predicted
+        verify(chatGptService, timeout(5000).atLeastOnce()).refreshDogSafety(any(ChatGptDogDto.class));
+        assertTrue(bulkPredictionService.pause().isPresent());
+        release.countDown();
+        PredictionJob paused = awaitStatus(PredictionJob.Status.PAUSED);
+
+        // Then - only the page in progress was finished
+        assertEquals(3, paused.getProcessed());
+        assertNull(paused.getFinishedAt());
+
+        assertTrue(bulkPredictionService.resume().isPresent());
+        PredictionJob completed = awaitStatus(PredictionJob.Status.COMPLETED);
+        assertEquals(dogCount, completed.getProcessed());
+        verify(chatGptService, times((int) dogCount)).refreshDogSafety(any(ChatGptDogDto.class));
+    }
+
+    @Test
+    void resumeInterruptedJob_ContinuesAfterCheckpoint() throws Exception {
+        // Given - a job that was running when the application stopped
+        when(chatGptService.refreshDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(Optional.of(new SafetyPrediction(SafetyLevel.NO, "Re-scored")));
+        List<Dog> dogs = dogRepository.findAll(Sort.by("id"));
+        PredictionJob interrupted = new PredictionJob();
+        interrupted.setStatus(PredictionJob.Status.RUNNING);
+        interrupted.setLastDogId(dogs.get(1).getId());
+        interrupted.setProcessed(2);
+        interrupted.setTotal(dogs.size());
+        interrupted.setParallelism(2);
+        interrupted.setRequestsPerMinute(60000);
+        interrupted.setPredictionVersion(PredictionPrompts.VERSION);
+        jobRepository.save(interrupted);
+
+        // When
+        bulkPredictionService.resumeInterruptedJob();
+        PredictionJob job = awaitStatus(PredictionJob.Status.COMPLETED);
+
+        // Then - dogs before the checkpoint are not predicted again
+        assertEquals(dogs.size(), job.getProcessed());
+        verify(chatGptService, times(dogs.size() - 2)).refreshDogSafety(any(ChatGptDogDto.class));
+        List<Dog> after = dogRepository.findAll(Sort.by("id"));
+        assertEquals(dogs.get(0).getIsSafeToPet(), after.get(0).getIsSafeToPet());
+        assertEquals(SafetyLevel.NO, after.get(2).getIsSafeToPet());
+    }
+
+    @Test
+    void getProgress_WithoutJobs_ReturnsEmpty() {
+        assertTrue(bulkPredictionService.getProgress().isEmpty());
+    }
+
+    private PredictionJob awaitStatus(PredictionJob.Status status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<PredictionJob> job = jobRepository.findFirstByOrderByIdDesc();
+            if (job.isPresent() && job.get().getStatus() == status) {
+                return job.get();
+            }
+            Thread.sleep(20);
+        }
+        fail("Job did not reach " + status);
+        return null;
+    }
+}
@@ -2,23 +2,46 @@ package com.example.springdogs.service;
 
 import com.example.springdogs.dto.ChatGptDogDto;
 import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.prediction.OpenAiCircuitBreaker;
+import com.example.springdogs.prediction.OpenAiClient;
+import com.example.springdogs.prediction.OpenAiStubServer;
+import com.example.springdogs.prediction.PredictionBatcher;
+import com.example.springdogs.prediction.PredictionCache;
+import com.example.springdogs.prediction.PredictionHedger;
+import com.example.springdogs.prediction.RulePrescreen;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.IOException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
-@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ChatGptServiceIntegrationTest {
 
+    private static final String SAFE_EXPLANATION = "Certified therapy dog with a spotless record.";
+    private static final String UNSAFE_EXPLANATION = "Has mauled people; keep well away.";
+
+    private OpenAiStubServer stub;
     private ChatGptService chatGptService;
 
     @BeforeEach
-    void setUp() {
-        // Initialize the service with the actual API key
-        chatGptService = new ChatGptService(System.getenv("OPENAI_API_KEY"));
+    void setUp() throws IOException {
+        // Scripted on the temperament, since the name is left out of the prompt
+        stub = new OpenAiStubServer().responder(prompt -> prompt.contains("mauled")
+                ? "NO\n" + UNSAFE_EXPLANATION
+                : "YES\n" + SAFE_EXPLANATION);
+        // Pre-screen off, so both dogs go over HTTP to the stub instead of matching a local rule
+        chatGptService = new ChatGptService(new OpenAiClient("test-key", stub.baseUrl()), new PredictionCache(),
+                PredictionBatcher.disabled(), new RulePrescreen(false), new OpenAiCircuitBreaker(),
+                PredictionHedger.disabled(), ChatGptService.DEFAULT_FALLBACK_VERDICT, ChatGptService.DEFAULT_FALLBACK_EXPLANATION);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
     }
 
     @Test
@@ -35,17 +58,10 @@ class ChatGptServiceIntegrationTest {
         // When
         SafetyPrediction result = chatGptService.predictDogSafety(safeDog);
 
-        // Then - Accept "Yes", "Cautiously", or "Error" due to rate limiting
-        assertNotNull(result);
-        assertTrue("Yes".equals(result.getIsSafeToPet()) || 
-                  "Cautiously".equals(result.getIsSafeToPet()) || 
-                  "Error".equals(result.getIsSafeToPet()));
-        assertNotNull(result.getSafetyExplanation());
-        assertTrue(result.getSafetyExplanation().length() > 10);
-        
-        // Debug output
-        System.out.println("SAFE DOG TEST - Prediction: " + result.getIsSafeToPet());
-        System.out.println("Explanation: " + result.getSafetyExplanation());
+        // Then
+        assertEquals(SafetyLevel.YES, result.getIsSafeToPet());
+        assertEquals(SAFE_EXPLANATION, result.getSafetyExplanation());
+        assertEquals(1L, stub.getStats().get("requests"));
     }
 
     @Test
@@ -62,17 +78,28 @@ class ChatGptServiceIntegrationTest {
         // When
         SafetyPrediction result = chatGptService.predictDogSafety(unsafeDog);
 
-        // Then - Accept "No", "Cautiously", or "Error" due to rate limiting
-        assertNotNull(result);
-        assertTrue("No".equals(result.getIsSafeToPet()) || 
-                  "Cautiously".equals(result.getIsSafeToPet()) || 
-                  "Error".equals(result.getIsSafeToPet()));
-        assertNotNull(result.getSafetyExplanation());
-        assertTrue(result.getSafetyExplanation().length() > 10);
-        
-        // Debug output
-        System.out.println("DANGEROUS DOG TEST - Prediction: " + result.getIsSafeToPet());
-        System.out.println("Explanation: " + result.getSafetyExplanation());
+        // Then
+        assertEquals(SafetyLevel.NO, result.getIsSafeToPet());
+        assertEquals(UNSAFE_EXPLANATION, result.getSafetyExplanation());
+        assertEquals(1L, stub.getStats().get("requests"));
+    }
+
+    @Test
+    void refreshDogSafety_WithUnusableAnswer_ReturnsEmpty() {
+        // Given - an answer that parses to an error rather than a verdict
+        stub.responder(prompt -> "Maybe\nHard to say.");
+        ChatGptDogDto dog = new ChatGptDogDto();
+        dog.setBreed("Beagle");
+        dog.setAge(4);
+        dog.setWeight(12.0);
+        dog.setTemperament("Curious");
+
+        // When
+        Optional<SafetyPrediction> result = chatGptService.refreshDogSafety(dog);
+
+        // Then
+        assertTrue(result.isEmpty());
+        assertEquals(1L, stub.getStats().get("requests"));
     }
 
 }
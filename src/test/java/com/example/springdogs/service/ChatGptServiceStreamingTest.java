@@ -0,0 +1,66 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.PredictionStreamEvent;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.prediction.OpenAiCircuitBreaker;
+import com.example.springdogs.prediction.OpenAiClient;
+import com.example.springdogs.prediction.PredictionBatcher;
+import com.example.springdogs.prediction.PredictionCache;
+import com.example.springdogs.prediction.PredictionHedger;
+import com.example.springdogs.prediction.RulePrescreen;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ChatGptServiceStreamingTest {
+
+    private OpenAiClient openAiClient;
+    private ChatGptService chatGptService;
+    private ChatGptDogDto dog;
+
+    @BeforeEach
+    void setUp() {
+        openAiClient = mock(OpenAiClient.class);
+        chatGptService = new ChatGptService(openAiClient, new PredictionCache(), PredictionBatcher.disabled(),
+                new RulePrescreen(false), new OpenAiCircuitBreaker(), PredictionHedger.disabled(), "Error", "Unavailable");
+        dog = new ChatGptDogDto("Rex", "Boxer", 4, "Brindle", 30.0, "Energetic");
+    }
+
+    @Test
+    void streamDogSafety_RelaysVerdictBeforeExplanationAndCachesResult() {
+        when(openAiClient.stream(anyString(), anyInt())).thenReturn(Flux.just("Caut", "iously\n", "Very", " energetic."));
+
+        List<PredictionStreamEvent> events = chatGptService.streamDogSafety(dog).collectList().block();
+
+        assertEquals(List.of(
+                PredictionStreamEvent.verdict(SafetyLevel.CAUTIOUSLY),
+                PredictionStreamEvent.explanation("Very"),
+                PredictionStreamEvent.explanation(" energetic."),
+                PredictionStreamEvent.done(new SafetyPrediction(SafetyLevel.CAUTIOUSLY, "Very energetic."))), events);
+
+        // The non-streaming path now answers from the cache
+        assertEquals(SafetyLevel.CAUTIOUSLY, chatGptService.predictDogSafety(dog).getIsSafeToPet());
+        verify(openAiClient, times(1)).stream(anyString(), anyInt());
+        verify(openAiClient, never()).complete(anyString(), anyInt());
+    }
+
+    @Test
+    void streamDogSafety_WhenStreamFails_EmitsErrorPrediction() {
+        when(openAiClient.stream(anyString(), anyInt())).thenReturn(Flux.error(new IllegalStateException("reset")));
+
+        List<PredictionStreamEvent> events = chatGptService.streamDogSafety(dog).collectList().block();
+
+        PredictionStreamEvent done = events.get(events.size() - 1);
+        assertTrue(done.isDone());
+        assertEquals(new SafetyPrediction(SafetyLevel.ERROR, "Technical error occurred: reset"), done.prediction());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.springdogs.service;
 
 import com.example.springdogs.dto.SafetyPrediction;
 import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.model.SafetyLevel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -38,7 +39,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("Yes", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.YES, result.getIsSafeToPet());
         assertEquals("This Golden Retriever appears friendly and safe to pet.", result.getSafetyExplanation());
     }
 
@@ -48,7 +49,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("No", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.NO, result.getIsSafeToPet());
         assertEquals("This dog is dangerous and should not be approached.", result.getSafetyExplanation());
     }
 
@@ -58,7 +59,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("Cautiously", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.CAUTIOUSLY, result.getIsSafeToPet());
         assertEquals("Approach with care, this dog may be unpredictable.", result.getSafetyExplanation());
     }
 
@@ -68,7 +69,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("Error", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.ERROR, result.getIsSafeToPet());
         assertTrue(result.getSafetyExplanation().contains("Invalid prediction format"));
     }
 
@@ -78,7 +79,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("Yes", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.YES, result.getIsSafeToPet());
         assertEquals("No explanation provided", result.getSafetyExplanation());
     }
 
@@ -88,7 +89,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("Error", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.ERROR, result.getIsSafeToPet());
         assertEquals("Technical error occurred.", result.getSafetyExplanation());
     }
 
@@ -98,7 +99,7 @@ class ChatGptServiceTest {
         
         SafetyPrediction result = parseSafetyResponse(responseContent);
         
-        assertEquals("Error", result.getIsSafeToPet());
+        assertEquals(SafetyLevel.ERROR, result.getIsSafeToPet());
         assertNotNull(result.getSafetyExplanation());
     }
 
@@ -113,16 +114,16 @@ class ChatGptServiceTest {
             // Validate prediction
             if (!prediction.equals("Yes") && !prediction.equals("No") && 
                 !prediction.equals("Cautiously") && !prediction.equals("Error")) {
-                return new SafetyPrediction("Error", 
+                return new SafetyPrediction(SafetyLevel.ERROR, 
                     "Invalid prediction format from ChatGPT: " + prediction);
             }
             
             String explanation = lines.length > 1 ? lines[1].trim() : "No explanation provided";
             
-            return new SafetyPrediction(prediction, explanation);
+            return new SafetyPrediction(SafetyLevel.fromLabel(prediction), explanation);
             
         } catch (Exception e) {
-            return new SafetyPrediction("Error", 
+            return new SafetyPrediction(SafetyLevel.ERROR, 
                 "Failed to parse ChatGPT response: " + e.getMessage());
         }
     }
@@ -0,0 +1,112 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DogCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_Twice_LoadsOnceAndCountsHit() {
+        DogCache cache = newCache(100);
+
+        DogDto first = cache.get(1L, this::load);
+        DogDto second = cache.get(1L, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    void get_WithMissingDog_DoesNotCacheAbsence() {
+        DogCache cache = newCache(100);
+
+        assertNull(cache.get(1L, id -> null));
+
+        assertNotNull(cache.get(1L, this::load));
+    }
+
+    @Test
+    void onDogChanged_DropsEntry() {
+        DogCache cache = newCache(100);
+        cache.get(1L, this::load);
+
+        cache.onDogChanged(new DogChangedEvent(1L));
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getStats().get("invalidations"));
+    }
+
+    @Test
+    void get_BeyondMaxSize_EvictsAndStaysWithinBound() {
+        DogCache cache = newCache(10);
+
+        for (long id = 0; id < 1_000; id++) {
+            cache.get(id, this::load);
+        }
+
+        assertTrue((Long) cache.getStats().get("size") <= 10);
+        assertTrue((Long) cache.getStats().get("evictions") > 0);
+    }
+
+    @Test
+    void invalidate_DuringLoad_DropsLoadedEntryWithoutWaiting() throws Exception {
+        DogCache cache = newCache(100);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DogDto> staleLoad = executor.submit(() -> cache.get(1L, id -> {
+                loading.countDown();
+                await(release);
+                return load(id);
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            // Completes while the load is still blocked, since the load holds no lock
+            executor.submit(() -> cache.invalidate(1L)).get(5, TimeUnit.SECONDS);
+            release.countDown();
+            assertNotNull(staleLoad.get(5, TimeUnit.SECONDS));
+
+            cache.get(1L, this::load);
+
+            // The stale load was dropped, so the second read loaded again
+            assertEquals(2, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DogDto load(Long id) {
+        loads.incrementAndGet();
+        DogDto dog = new DogDto();
+        dog.setId(id);
+        dog.setName("Dog " + id);
+        return dog;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static DogCache newCache(long maxSize) {
+        return new DogCache(maxSize, Duration.ofHours(1), Runnable::run);
+    }
+}
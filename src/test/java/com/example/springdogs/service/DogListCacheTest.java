@@ -0,0 +1,104 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DogListCacheTest {
+
+    private final DogDataGeneration generation = new DogDataGeneration();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_Twice_LoadsOnceAndCountsHit() {
+        DogListCache cache = newCache(true);
+
+        Object first = cache.get(DogListCache.Kind.PAGE, DogSearchCriteria.of(null, "Yes"), page(0), this::load);
+        Object second = cache.get(DogListCache.Kind.PAGE, DogSearchCriteria.of(null, "Yes"), page(0), this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(0.5, cache.getStats().get("hitRate"));
+    }
+
+    @Test
+    void get_AfterGenerationBump_Reloads() {
+        DogListCache cache = newCache(true);
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+
+        generation.onDogChanged(new DogChangedEvent(1L));
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getStats().get("outdatedMisses"));
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    void get_WithEquivalentSearchSpellings_SharesEntry() {
+        DogListCache cache = newCache(true);
+
+        cache.get(DogListCache.Kind.PAGE, DogSearchCriteria.of("Golden  Retriever", "All"), page(0), this::load);
+        cache.get(DogListCache.Kind.PAGE, DogSearchCriteria.of(" golden retriever ", null), page(0), this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WithDifferentPageKindOrFilter_LoadsEach() {
+        DogListCache cache = newCache(true);
+
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(1), this::load);
+        cache.get(DogListCache.Kind.SLICE, new DogSearchCriteria(), page(0), this::load);
+        cache.get(DogListCache.Kind.PAGE, DogSearchCriteria.of(null, "No"), page(0), this::load);
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), PageRequest.of(0, 10, Sort.by("name")), this::load);
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void get_WhenLoadSpansAWrite_FilesResultUnderTheOlderGeneration() {
+        DogListCache cache = newCache(true);
+
+        // The write commits while the first load is still reading
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), () -> {
+            generation.bump();
+            return load();
+        });
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenDisabled_AlwaysLoads() {
+        DogListCache cache = newCache(false);
+
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+        cache.get(DogListCache.Kind.PAGE, new DogSearchCriteria(), page(0), this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private Object load() {
+        loads.incrementAndGet();
+        return new Object();
+    }
+
+    private static Pageable page(int number) {
+        return PageRequest.of(number, 10);
+    }
+
+    private DogListCache newCache(boolean enabled) {
+        return new DogListCache(generation, enabled, 100, Runnable::run);
+    }
+}
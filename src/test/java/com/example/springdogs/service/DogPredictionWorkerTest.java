@@ -0,0 +1,111 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.repository.DogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// One worker and a one-slot queue, so the third concurrent write finds the pool saturated;
+// the periodic sweep is pushed out so each test triggers it explicitly
+@SpringBootTest(properties = {
+        "app.prediction.async.enabled=true",
+        "app.prediction.async.workers=1",
+        "app.prediction.async.queue-capacity=1",
+        "app.prediction.async.sweep-interval=1h"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogPredictionWorkerTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogPredictionWorker dogPredictionWorker;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @MockBean
+    private ChatGptService chatGptService;
+
+    @Test
+    void saveDog_WhenPoolSaturated_ReturnsWithoutPredictingAndSweepCatchesUp() throws Exception {
+        // Given - a predictor that holds the only worker until released
+        CountDownLatch releasePredictions = new CountDownLatch(1);
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            releasePredictions.await(10, TimeUnit.SECONDS);
+            return new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly");
+        });
+        Long running = dogService.saveDog(newDog("Rex")).getId();
+        Long queued = dogService.saveDog(newDog("Fido")).getId();
+
+        // When - the pool has no room left
+        DogDto rejected = assertTimeoutPreemptively(Duration.ofSeconds(2), () -> dogService.saveDog(newDog("Spot")));
+
+        // Then - the write returned without running the prediction itself
+        assertTrue(dogService.isPredictionPending(rejected));
+        releasePredictions.countDown();
+        assertEquals(SafetyLevel.YES, awaitPrediction(running));
+        assertEquals(SafetyLevel.YES, awaitPrediction(queued));
+        assertTrue(dogService.isPredictionPending(dogService.findDogById(rejected.getId()).orElseThrow()));
+
+        dogPredictionWorker.sweepPending();
+        assertEquals(SafetyLevel.YES, awaitPrediction(rejected.getId()));
+    }
+
+    @Test
+    void sweepPending_WithDogLeftPendingByRestart_PredictsIt() throws Exception {
+        // Given - a dog persisted as Pending whose queued prediction was lost
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+                .thenReturn(new SafetyPrediction(SafetyLevel.NO, "Bites strangers"));
+        Dog dog = newDog("Rex").toEntity();
+        dog.setIsSafeToPet(SafetyLevel.PENDING);
+        dog.setSafetyExplanation("Safety prediction is in progress");
+        Long dogId = dogRepository.save(dog).getId();
+
+        // When
+        dogPredictionWorker.sweepPending();
+
+        // Then
+        assertEquals(SafetyLevel.NO, awaitPrediction(dogId));
+        assertEquals("Bites strangers", dogService.findDogById(dogId).orElseThrow().getSafetyExplanation());
+    }
+
+    private SafetyLevel awaitPrediction(Long dogId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            DogDto dog = dogService.findDogById(dogId).orElseThrow();
+            if (!dogService.isPredictionPending(dog)) {
+                return dog.getIsSafeToPet();
+            }
+            Thread.sleep(20);
+        }
+        return fail("Prediction for dog " + dogId + " was not applied in time");
+    }
+
+    private DogDto newDog(String name) {
+        DogDto dog = new DogDto();
+        dog.setName(name);
+        dog.setBreed("Terrier");
+        dog.setAge(3);
+        dog.setColor("Brown");
+        dog.setWeight(15.0);
+        dog.setTemperament("Playful");
+        return dog;
+    }
+}
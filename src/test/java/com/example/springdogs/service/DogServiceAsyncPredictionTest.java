@@ -0,0 +1,107 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "app.prediction.async.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogServiceAsyncPredictionTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @MockBean
+    private ChatGptService chatGptService;
+
+    @Test
+    void saveDog_InAsyncMode_ReturnsPendingAndFillsPredictionLater() throws Exception {
+        // Given - a predictor that does not answer until released
+        CountDownLatch releasePrediction = new CountDownLatch(1);
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            releasePrediction.await(10, TimeUnit.SECONDS);
+            return new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly");
+        });
+
+        // When
+        DogDto savedDog = dogService.saveDog(newDog("Friendly and gentle"));
+
+        // Then - the write returns before the prediction is available
+        assertNotNull(savedDog.getId());
+        assertTrue(dogService.isPredictionPending(savedDog));
+
+        releasePrediction.countDown();
+        DogDto predicted = awaitPrediction(savedDog.getId());
+        assertEquals(SafetyLevel.YES, predicted.getIsSafeToPet());
+        assertEquals("Gentle and friendly", predicted.getSafetyExplanation());
+    }
+
+    @Test
+    void updateDog_InAsyncMode_DoesNotApplyPredictionForSupersededEdit() throws Exception {
+        // Given
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            ChatGptDogDto dog = invocation.getArgument(0);
+            if (dog.getTemperament().equals("Playful")) {
+                releaseFirst.await(10, TimeUnit.SECONDS);
+                return new SafetyPrediction(SafetyLevel.YES, "Playful dog");
+            }
+            return new SafetyPrediction(SafetyLevel.NO, "Bites strangers");
+        });
+        DogDto initialDog = newDog("Calm");
+        initialDog.setIsSafeToPet(SafetyLevel.CAUTIOUSLY);
+        initialDog.setSafetyExplanation("Pre-set prediction");
+        Long dogId = dogService.saveDog(initialDog).getId();
+
+        // When - a slow prediction for the first edit finishes after a second edit
+        Optional<DogDto> firstEdit = dogService.updateDog(dogId, newDog("Playful"));
+        dogService.updateDog(dogId, newDog("Bites strangers"));
+        DogDto predicted = awaitPrediction(dogId);
+        releaseFirst.countDown();
+        verify(chatGptService, timeout(5000).times(2)).predictDogSafety(any(ChatGptDogDto.class));
+        Thread.sleep(200);
+
+        // Then - the later edit's prediction wins
+        assertTrue(firstEdit.isPresent());
+        assertTrue(dogService.isPredictionPending(firstEdit.get()));
+        assertEquals(SafetyLevel.NO, predicted.getIsSafeToPet());
+        assertEquals(SafetyLevel.NO, dogService.findDogById(dogId).orElseThrow().getIsSafeToPet());
+    }
+
+    private DogDto awaitPrediction(Long dogId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            DogDto dog = dogService.findDogById(dogId).orElseThrow();
+            if (!dogService.isPredictionPending(dog)) {
+                return dog;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Prediction for dog " + dogId + " was not applied in time");
+    }
+
+    private DogDto newDog(String temperament) {
+        DogDto dog = new DogDto();
+        dog.setName("Rex");
+        dog.setBreed("Terrier");
+        dog.setAge(3);
+        dog.setColor("Brown");
+        dog.setWeight(15.0);
+        dog.setTemperament(temperament);
+        return dog;
+    }
+}
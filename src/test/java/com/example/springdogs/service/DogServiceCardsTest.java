@@ -0,0 +1,113 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogCard;
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.dto.DogSlice;
+import com.example.springdogs.model.SafetyLevel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.example.springdogs.service.TestDogs.dog;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext
+class DogServiceCardsTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        DogDto buddy = dog("Buddy", "Golden Retriever", 3, 70.5, SafetyLevel.YES,
+                "Everyone's best friend - gentle, loving, and great with kids of every age");
+        buddy.setSafetyExplanation("Golden Retrievers are known for their gentle temperament. ".repeat(8));
+        TestDogs.replaceAll(dogService,
+                buddy,
+                dog("Max", "Labrador Retriever", 7, 65.0, SafetyLevel.YES, "Playful"),
+                dog("Bella", "Beagle", 2, 25.8, SafetyLevel.YES, "Curious and vocal"),
+                dog("Zeus", "Great Dane", 3, 145.7, SafetyLevel.YES, "Gentle giant"),
+                dog("Rocky", "Boxer", 4, 75.3, SafetyLevel.NO, "Protective"));
+    }
+
+    @Test
+    void findDogCards_MatchesEntityListing() {
+        DogSearchCriteria criteria = DogSearchCriteria.of(null, "Yes");
+        PageRequest pageable = PageRequest.of(0, 3, Sort.by("name"));
+        DogSlice expected = dogService.findDogSlice(criteria, pageable, false);
+
+        Slice<DogCard> cards = dogService.findDogCards(criteria, pageable);
+
+        assertEquals(expected.isHasNext(), cards.hasNext());
+        assertEquals(expected.getContent().size(), cards.getNumberOfElements());
+        for (int i = 0; i < cards.getNumberOfElements(); i++) {
+            DogDto dog = expected.getContent().get(i);
+            DogCard card = cards.getContent().get(i);
+            assertEquals(dog.getId(), card.id());
+            assertEquals(dog.getName(), card.name());
+            assertEquals(dog.getBreed(), card.breed());
+            assertEquals(dog.getAge(), card.age());
+            assertEquals(dog.getWeight(), card.weight());
+            assertEquals(dog.getIsSafeToPet(), card.isSafeToPet());
+            assertTrue(dog.getTemperament().startsWith(card.temperament()));
+            assertTrue(dog.getSafetyExplanation().startsWith(card.safetyExplanation()));
+        }
+    }
+
+    @Test
+    void findDogCards_CutsLongTextToPreviews() {
+        List<DogCard> cards = dogService.findDogCards(new DogSearchCriteria(), PageRequest.of(0, 20)).getContent();
+
+        assertEquals(5, cards.size());
+        assertTrue(cards.stream().allMatch(card -> card.temperament().length() <= DogCard.TEMPERAMENT_PREVIEW_LENGTH));
+        assertTrue(cards.stream().anyMatch(card -> card.temperament().length() == DogCard.TEMPERAMENT_PREVIEW_LENGTH));
+        assertTrue(cards.stream().anyMatch(card -> card.safetyExplanation().length() == DogCard.EXPLANATION_PREVIEW_LENGTH));
+    }
+
+    @Test
+    void findDogCards_WithSearch_KeepsIndexOrder() {
+        DogSearchCriteria criteria = DogSearchCriteria.of("retriever", "Yes");
+
+        List<String> names = dogService.findDogCards(criteria, PageRequest.of(0, 10, Sort.by("name")))
+                .map(DogCard::name).getContent();
+
+        assertEquals(List.of("Buddy", "Max"), names);
+    }
+
+    @Test
+    void findDogCards_LoadsNoEntities() {
+        // The query joins this transaction, so its persistence context is the one inspected
+        transactionTemplate.executeWithoutResult(status -> {
+            dogService.findDogCards(new DogSearchCriteria(), PageRequest.of(0, 20));
+
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        });
+    }
+
+    @Test
+    void findDogCards_WithUnknownPrediction_ReturnsEmptySlice() {
+        Slice<DogCard> cards = dogService.findDogCards(DogSearchCriteria.of(null, "Maybe"), PageRequest.of(0, 5));
+
+        assertFalse(cards.hasContent());
+        assertFalse(cards.hasNext());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.SafetyLevel;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogServiceConnectionPoolTest {
+
+    private static final long SLOW_PREDICTION_MS = 300;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private ChatGptService chatGptService;
+
+    private HikariPoolMXBean pool;
+    private List<Integer> activeConnectionsDuringPrediction;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        activeConnectionsDuringPrediction = new ArrayList<>();
+
+        // Slow predictor that samples the pool while the "LLM call" is in progress
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            synchronized (activeConnectionsDuringPrediction) {
+                activeConnectionsDuringPrediction.add(pool.getActiveConnections());
+            }
+            Thread.sleep(SLOW_PREDICTION_MS);
+            synchronized (activeConnectionsDuringPrediction) {
+                activeConnectionsDuringPrediction.add(pool.getActiveConnections());
+            }
+            return new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly");
+        });
+    }
+
+    @Test
+    void saveDog_WithSlowPredictor_HoldsNoConnectionDuringPrediction() {
+        // When
+        DogDto savedDog = dogService.saveDog(newDog("Goldie"));
+
+        // Then
+        assertNotNull(savedDog.getId());
+        assertEquals(SafetyLevel.YES, savedDog.getIsSafeToPet());
+        assertFalse(activeConnectionsDuringPrediction.isEmpty());
+        activeConnectionsDuringPrediction.forEach(active -> assertEquals(0, active));
+    }
+
+    @Test
+    void updateDog_WithSlowPredictor_HoldsNoConnectionDuringPrediction() {
+        // Given
+        DogDto existingDog = new DogDto();
+        existingDog.setName("Rex");
+        existingDog.setBreed("Terrier");
+        existingDog.setAge(3);
+        existingDog.setIsSafeToPet(SafetyLevel.CAUTIOUSLY);
+        existingDog.setSafetyExplanation("Pre-set prediction");
+        Long dogId = dogService.saveDog(existingDog).getId();
+
+        // When
+        Optional<DogDto> updatedDog = dogService.updateDog(dogId, newDog("Rex"));
+
+        // Then
+        assertTrue(updatedDog.isPresent());
+        assertEquals(SafetyLevel.YES, updatedDog.get().getIsSafeToPet());
+        assertFalse(activeConnectionsDuringPrediction.isEmpty());
+        activeConnectionsDuringPrediction.forEach(active -> assertEquals(0, active));
+    }
+
+    @Test
+    void concurrentWrites_WithSlowPredictor_LeavePoolFreeForReads() throws Exception {
+        // More writers than the pool has connections, all parked inside the predictor at once
+        int writers = pool.getTotalConnections() + 5;
+        CountDownLatch allPredicting = new CountDownLatch(writers);
+        CountDownLatch releasePredictions = new CountDownLatch(1);
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class))).thenAnswer(invocation -> {
+            allPredicting.countDown();
+            releasePredictions.await(10, TimeUnit.SECONDS);
+            return new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<DogDto>> writes = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                String name = "Dog " + i;
+                writes.add(executor.submit(() -> dogService.saveDog(newDog(name))));
+            }
+            assertTrue(allPredicting.await(10, TimeUnit.SECONDS));
+
+            // Every writer is waiting on the predictor, none of them holds a connection
+            assertEquals(0, pool.getActiveConnections());
+            assertEquals(0, pool.getThreadsAwaitingConnection());
+            assertNotNull(dogService.findAllDogs(null, null, PageRequest.of(0, 10)));
+
+            releasePredictions.countDown();
+            for (Future<DogDto> write : writes) {
+                assertNotNull(write.get(10, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            releasePredictions.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private DogDto newDog(String name) {
+        DogDto dog = new DogDto();
+        dog.setName(name);
+        dog.setBreed("Golden Retriever");
+        dog.setAge(2);
+        dog.setColor("Gold");
+        dog.setWeight(30.0);
+        dog.setTemperament("Friendly and gentle");
+        return dog;
+    }
+}
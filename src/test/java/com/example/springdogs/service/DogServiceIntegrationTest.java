@@ -3,6 +3,7 @@ package com.example.springdogs.service;
 import com.example.springdogs.dto.DogDto;
 import com.example.springdogs.dto.ChatGptDogDto;
 import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
 import com.example.springdogs.repository.DogRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -73,10 +74,10 @@ class DogServiceIntegrationTest {
         assertNotNull(savedDog.getIsSafeToPet());
         assertNotNull(savedDog.getSafetyExplanation());
         // Should get prediction (Yes/No/Cautiously/Error)
-        assertTrue(savedDog.getIsSafeToPet().equals("Yes") ||
-                  savedDog.getIsSafeToPet().equals("No") ||
-                  savedDog.getIsSafeToPet().equals("Cautiously") ||
-                  savedDog.getIsSafeToPet().equals("Error"));
+        assertTrue(savedDog.getIsSafeToPet() == SafetyLevel.YES ||
+                  savedDog.getIsSafeToPet() == SafetyLevel.NO ||
+                  savedDog.getIsSafeToPet() == SafetyLevel.CAUTIOUSLY ||
+                  savedDog.getIsSafeToPet() == SafetyLevel.ERROR);
         assertTrue(savedDog.getSafetyExplanation().length() > 0);
     }
 
@@ -104,10 +105,10 @@ class DogServiceIntegrationTest {
         assertNotNull(updatedDog.get().getSafetyExplanation());
         assertTrue(updatedDog.get().getSafetyExplanation().length() > 0);
         // Should get prediction (Yes/No/Cautiously/Error)
-        assertTrue(updatedDog.get().getIsSafeToPet().equals("Yes") ||
-                  updatedDog.get().getIsSafeToPet().equals("No") ||
-                  updatedDog.get().getIsSafeToPet().equals("Cautiously") ||
-                  updatedDog.get().getIsSafeToPet().equals("Error"));
+        assertTrue(updatedDog.get().getIsSafeToPet() == SafetyLevel.YES ||
+                  updatedDog.get().getIsSafeToPet() == SafetyLevel.NO ||
+                  updatedDog.get().getIsSafeToPet() == SafetyLevel.CAUTIOUSLY ||
+                  updatedDog.get().getIsSafeToPet() == SafetyLevel.ERROR);
     }
 
     @Test
@@ -131,10 +132,10 @@ class DogServiceIntegrationTest {
         // Then - Accept any prediction due to rate limiting
         assertTrue(updatedDog.isPresent());
         assertNotNull(updatedDog.get().getIsSafeToPet());
-        assertTrue("Yes".equals(updatedDog.get().getIsSafeToPet()) || 
-                  "No".equals(updatedDog.get().getIsSafeToPet()) ||
-                  "Cautiously".equals(updatedDog.get().getIsSafeToPet()) || 
-                  "Error".equals(updatedDog.get().getIsSafeToPet()));
+        assertTrue(updatedDog.get().getIsSafeToPet() == SafetyLevel.YES || 
+                  updatedDog.get().getIsSafeToPet() == SafetyLevel.NO ||
+                  updatedDog.get().getIsSafeToPet() == SafetyLevel.CAUTIOUSLY || 
+                  updatedDog.get().getIsSafeToPet() == SafetyLevel.ERROR);
         assertNotNull(updatedDog.get().getSafetyExplanation());
         assertTrue(updatedDog.get().getSafetyExplanation().length() > 5);
     }
@@ -151,10 +152,10 @@ class DogServiceIntegrationTest {
         assertNotNull(prediction.getSafetyExplanation());
         assertTrue(prediction.getSafetyExplanation().length() > 5);
         // Should get prediction (Yes/No/Cautiously/Error)
-        assertTrue(prediction.getIsSafeToPet().equals("Yes") ||
-                  prediction.getIsSafeToPet().equals("No") ||
-                  prediction.getIsSafeToPet().equals("Cautiously") ||
-                  prediction.getIsSafeToPet().equals("Error"));
+        assertTrue(prediction.getIsSafeToPet() == SafetyLevel.YES ||
+                  prediction.getIsSafeToPet() == SafetyLevel.NO ||
+                  prediction.getIsSafeToPet() == SafetyLevel.CAUTIOUSLY ||
+                  prediction.getIsSafeToPet() == SafetyLevel.ERROR);
     }
 
     @Test
@@ -169,10 +170,10 @@ class DogServiceIntegrationTest {
         assertNotNull(prediction.getSafetyExplanation());
         assertTrue(prediction.getSafetyExplanation().length() > 5);
         // Should get prediction (Yes/No/Cautiously/Error)
-        assertTrue(prediction.getIsSafeToPet().equals("Yes") ||
-                  prediction.getIsSafeToPet().equals("No") ||
-                  prediction.getIsSafeToPet().equals("Cautiously") ||
-                  prediction.getIsSafeToPet().equals("Error"));
+        assertTrue(prediction.getIsSafeToPet() == SafetyLevel.YES ||
+                  prediction.getIsSafeToPet() == SafetyLevel.NO ||
+                  prediction.getIsSafeToPet() == SafetyLevel.CAUTIOUSLY ||
+                  prediction.getIsSafeToPet() == SafetyLevel.ERROR);
     }
 
     @Test 
@@ -0,0 +1,152 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.ChatGptDogDto;
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.PredictionStreamEvent;
+import com.example.springdogs.dto.SafetyPrediction;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.prediction.PredictionPrompts;
+import com.example.springdogs.repository.DogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import reactor.core.publisher.Flux;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogServicePredictionFingerprintTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @MockBean
+    private ChatGptService chatGptService;
+
+    @Test
+    void saveDog_StoresFingerprintAndVersionWithPrediction() {
+        // Given
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly"));
+
+        // When
+        Long dogId = dogService.saveDog(newDog("Rex", "Brown", "Friendly and gentle")).getId();
+
+        // Then
+        Dog dog = dogRepository.findById(dogId).orElseThrow();
+        assertEquals(32, dog.getPredictionFingerprint().length());
+        assertEquals(PredictionPrompts.VERSION, dog.getPredictionVersion());
+    }
+
+    @Test
+    void updateDog_WithOnlyNameAndColorChanged_KeepsPredictionWithoutCallingChatGpt() {
+        // Given
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly"));
+        Long dogId = dogService.saveDog(newDog("Rex", "Brown", "Friendly and gentle")).getId();
+
+        // When
+        Optional<DogDto> updated = dogService.updateDog(dogId, newDog("Rexie", "Dark brown", "Friendly and gentle"));
+
+        // Then
+        assertTrue(updated.isPresent());
+        assertEquals("Rexie", updated.get().getName());
+        assertEquals("Dark brown", updated.get().getColor());
+        assertEquals(SafetyLevel.YES, updated.get().getIsSafeToPet());
+        verify(chatGptService, times(1)).predictDogSafety(any(ChatGptDogDto.class));
+    }
+
+    @Test
+    void updateDog_WithTemperamentChanged_Repredicts() {
+        // Given
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly"))
+            .thenReturn(new SafetyPrediction(SafetyLevel.NO, "Bites strangers"));
+        Long dogId = dogService.saveDog(newDog("Rex", "Brown", "Friendly and gentle")).getId();
+
+        // When
+        Optional<DogDto> updated = dogService.updateDog(dogId, newDog("Rex", "Brown", "Bites strangers"));
+
+        // Then
+        assertEquals(SafetyLevel.NO, updated.orElseThrow().getIsSafeToPet());
+        verify(chatGptService, times(2)).predictDogSafety(any(ChatGptDogDto.class));
+    }
+
+    @Test
+    void updateDog_WithPredictionFromOlderVersion_Repredicts() {
+        // Given - a prediction stored by a previous prompt or model
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly"));
+        Long dogId = dogService.saveDog(newDog("Rex", "Brown", "Friendly and gentle")).getId();
+        Dog dog = dogRepository.findById(dogId).orElseThrow();
+        dog.setPredictionVersion("gpt-3.5-turbo/0");
+        dogRepository.save(dog);
+
+        // When
+        dogService.updateDog(dogId, newDog("Rex", "Brown", "Friendly and gentle"));
+
+        // Then
+        verify(chatGptService, times(2)).predictDogSafety(any(ChatGptDogDto.class));
+        assertEquals(PredictionPrompts.VERSION, dogRepository.findById(dogId).orElseThrow().getPredictionVersion());
+    }
+
+    @Test
+    void updateDog_AfterErrorPrediction_RetriesOnNextSave() {
+        // Given
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.ERROR, "Technical error occurred: timeout"))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly"));
+        Long dogId = dogService.saveDog(newDog("Rex", "Brown", "Friendly and gentle")).getId();
+        assertNull(dogRepository.findById(dogId).orElseThrow().getPredictionFingerprint());
+
+        // When
+        Optional<DogDto> updated = dogService.updateDog(dogId, newDog("Rex", "Brown", "Friendly and gentle"));
+
+        // Then
+        assertEquals(SafetyLevel.YES, updated.orElseThrow().getIsSafeToPet());
+        verify(chatGptService, times(2)).predictDogSafety(any(ChatGptDogDto.class));
+    }
+
+    @Test
+    void streamPrediction_WithFailedPrediction_StreamsItWithoutStoringIt() {
+        // Given
+        when(chatGptService.predictDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(new SafetyPrediction(SafetyLevel.YES, "Gentle and friendly"));
+        Long dogId = dogService.saveDog(newDog("Rex", "Brown", "Friendly and gentle")).getId();
+        SafetyPrediction unavailable = new SafetyPrediction(SafetyLevel.ERROR, "Prediction service unavailable");
+        when(chatGptService.streamDogSafety(any(ChatGptDogDto.class)))
+            .thenReturn(Flux.just(PredictionStreamEvent.done(unavailable)));
+        when(chatGptService.isFailure(unavailable)).thenReturn(true);
+
+        // When
+        PredictionStreamEvent last = dogService.streamPrediction(dogId).orElseThrow().blockLast();
+
+        // Then
+        assertEquals(unavailable, last.prediction());
+        Dog dog = dogRepository.findById(dogId).orElseThrow();
+        assertEquals(SafetyLevel.YES, dog.getIsSafeToPet());
+        assertEquals("Gentle and friendly", dog.getSafetyExplanation());
+    }
+
+    private DogDto newDog(String name, String color, String temperament) {
+        DogDto dog = new DogDto();
+        dog.setName(name);
+        dog.setBreed("Terrier");
+        dog.setAge(3);
+        dog.setColor(color);
+        dog.setWeight(15.0);
+        dog.setTemperament(temperament);
+        return dog;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogScrollPage;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.Dog;
+import com.example.springdogs.model.SafetyLevel;
+import com.example.springdogs.repository.DogRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.springdogs.service.TestDogs.dog;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogServiceScrollTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogRepository dogRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Several dogs share an age, so age ordering has to fall back to the id
+        TestDogs.replaceAll(dogService,
+                dog("Buddy", "Golden Retriever", 3, 70.5, SafetyLevel.YES),
+                dog("Luna", "German Shepherd", 5, 85.2, SafetyLevel.CAUTIOUSLY),
+                dog("Max", "Labrador Retriever", 7, 65.0, SafetyLevel.YES),
+                dog("Bella", "Beagle", 3, 25.8, SafetyLevel.YES),
+                dog("Rocky", "Boxer", 5, 75.3, SafetyLevel.NO),
+                dog("Zeus", "Great Dane", 3, 145.7, SafetyLevel.YES));
+    }
+
+    @Test
+    void scrollDogs_ByName_VisitsEveryDogOnceInOrder() {
+        List<String> expected = dogService.findAllDogs(new DogSearchCriteria(), PageRequest.of(0, 100, Sort.by("name", "id")))
+                .map(DogDto::getName).getContent();
+
+        assertEquals(expected, scrollAll(new DogSearchCriteria(), DogCursor.first("name", false), 3));
+    }
+
+    @Test
+    void scrollDogs_ByAgeDescending_OrdersByAgeThenId() {
+        List<DogDto> dogs = new ArrayList<>();
+        DogCursor cursor = DogCursor.first("age", true);
+        DogScrollPage page;
+        do {
+            page = dogService.scrollDogs(new DogSearchCriteria(), cursor, 2);
+            dogs.addAll(page.getContent());
+            cursor = page.getNextCursor() == null ? null : DogCursor.decode(page.getNextCursor());
+        } while (cursor != null);
+
+        assertEquals(6, dogs.size());
+        for (int i = 1; i < dogs.size(); i++) {
+            DogDto previous = dogs.get(i - 1);
+            DogDto current = dogs.get(i);
+            assertTrue(previous.getAge() > current.getAge()
+                    || previous.getAge().equals(current.getAge()) && previous.getId() > current.getId());
+        }
+    }
+
+    @Test
+    void scrollDogs_WithInsertBeforeCursor_DoesNotRepeatOrSkip() {
+        DogScrollPage first = dogService.scrollDogs(new DogSearchCriteria(), DogCursor.first("name", false), 4);
+        List<String> names = new ArrayList<>(first.getContent().stream().map(DogDto::getName).toList());
+
+        // Sorts before every other dog, so an offset-based second page would repeat the fourth dog
+        dogRepository.save(entity("Aaron"));
+
+        names.addAll(scrollAll(new DogSearchCriteria(), DogCursor.decode(first.getNextCursor()), 4));
+        assertEquals(6, names.size());
+        assertEquals(6, names.stream().distinct().count());
+        assertFalse(names.contains("Aaron"));
+    }
+
+    @Test
+    void scrollDogs_WithSearchAndFilter_PagesThroughMatches() {
+        DogSearchCriteria criteria = DogSearchCriteria.of("retriever", "Yes");
+
+        assertEquals(List.of("Buddy", "Max"), scrollAll(criteria, DogCursor.first("name", false), 1));
+    }
+
+    @Test
+    void scrollDogs_WithFilter_AppliesFilterOnEveryPage() {
+        DogSearchCriteria criteria = DogSearchCriteria.of(null, "Yes");
+        List<String> expected = dogService.findAllDogs(criteria, PageRequest.of(0, 100, Sort.by("breed", "id")))
+                .map(DogDto::getName).getContent();
+
+        assertEquals(expected, scrollAll(criteria, DogCursor.first("breed", false), 1));
+    }
+
+    @Test
+    void scrollDogs_WithUnknownPrediction_ReturnsEmptyLastPage() {
+        DogScrollPage page = dogService.scrollDogs(DogSearchCriteria.of(null, "Maybe"), DogCursor.first("id", false), 5);
+
+        assertTrue(page.getContent().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void decode_WithEncodedCursor_RoundTrips() {
+        DogCursor cursor = new DogCursor("name", true, "Mr: Whiskers", 42L);
+
+        assertEquals(cursor, DogCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_WithTamperedToken_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> DogCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> DogCursor.decode(
+                new DogCursor("weight", false, "1.0", 1L).encode()));
+        assertThrows(IllegalArgumentException.class, () -> DogCursor.decode(
+                new DogCursor("age", false, "old", 1L).encode()));
+    }
+
+    @Test
+    void first_WithUnsupportedSortKey_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> DogCursor.first("createdAt", false));
+    }
+
+    private List<String> scrollAll(DogSearchCriteria criteria, DogCursor cursor, int size) {
+        List<String> names = new ArrayList<>();
+        while (cursor != null) {
+            DogScrollPage page = dogService.scrollDogs(criteria, cursor, size);
+            assertTrue(page.getContent().size() <= size);
+            page.getContent().forEach(dog -> names.add(dog.getName()));
+            cursor = page.getNextCursor() == null ? null : DogCursor.decode(page.getNextCursor());
+        }
+        return names;
+    }
+
+    private static Dog entity(String name) {
+        Dog dog = new Dog();
+        dog.setName(name);
+        dog.setBreed("Poodle");
+        dog.setAge(3);
+        dog.setColor("White");
+        dog.setWeight(20.0);
+        dog.setTemperament("Calm");
+        dog.setIsSafeToPet(SafetyLevel.YES);
+        dog.setSafetyExplanation("Calm");
+        return dog;
+    }
+}
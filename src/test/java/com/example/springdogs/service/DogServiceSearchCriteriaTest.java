@@ -0,0 +1,102 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static com.example.springdogs.service.TestDogs.dog;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext
+class DogServiceSearchCriteriaTest {
+
+    @Autowired
+    private DogService dogService;
+
+    @BeforeEach
+    void setUp() {
+        TestDogs.replaceAll(dogService,
+                dog("Buddy", "Golden Retriever", 3, 70.5, SafetyLevel.YES),
+                dog("Luna", "German Shepherd", 5, 85.2, SafetyLevel.CAUTIOUSLY),
+                dog("Max", "Labrador Retriever", 7, 65.0, SafetyLevel.YES),
+                dog("Bella", "Beagle", 2, 25.8, SafetyLevel.YES),
+                dog("Rocky", "Boxer", 4, 75.3, SafetyLevel.NO),
+                dog("Charlie", "Siberian Husky", 1, 55.1, SafetyLevel.CAUTIOUSLY));
+    }
+
+    @Test
+    void findAllDogs_WithSearchAndPrediction_AppliesBoth() {
+        DogSearchCriteria criteria = DogSearchCriteria.of("retriever", "Yes");
+
+        assertEquals(List.of("Buddy", "Max"), names(dogService.findAllDogs(criteria, byName())));
+    }
+
+    @Test
+    void findAllDogs_WithSearchAndAgeRange_AppliesBoth() {
+        DogSearchCriteria criteria = DogSearchCriteria.of("retriever", null);
+        criteria.setMaxAge(5);
+
+        assertEquals(List.of("Buddy"), names(dogService.findAllDogs(criteria, byName())));
+    }
+
+    @Test
+    void findAllDogs_WithPredictionAndWeightRange_AppliesBoth() {
+        DogSearchCriteria criteria = DogSearchCriteria.of(null, "Yes");
+        criteria.setMinWeight(60.0);
+
+        Page<DogDto> result = dogService.findAllDogs(criteria, byName());
+
+        assertEquals(List.of("Buddy", "Max"), names(result));
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void findAllDogs_WithPredictionAndAgeRange_AppliesBoth() {
+        DogSearchCriteria criteria = DogSearchCriteria.of(null, "Cautiously");
+        criteria.setMinAge(3);
+        criteria.setMaxAge(5);
+
+        assertEquals(List.of("Luna"), names(dogService.findAllDogs(criteria, byName())));
+    }
+
+    @Test
+    void findAllDogs_WithBreed_MatchesExactBreedOnly() {
+        DogSearchCriteria criteria = new DogSearchCriteria();
+        criteria.setBreed("Beagle");
+        assertEquals(List.of("Bella"), names(dogService.findAllDogs(criteria, byName())));
+
+        criteria.setBreed("Beag");
+        assertTrue(dogService.findAllDogs(criteria, byName()).isEmpty());
+    }
+
+    @Test
+    void findAllDogs_WithUnknownPrediction_ReturnsEmptyPage() {
+        DogSearchCriteria criteria = DogSearchCriteria.of("retriever", "Maybe");
+
+        assertTrue(dogService.findAllDogs(criteria, byName()).isEmpty());
+    }
+
+    @Test
+    void findAllDogs_WithAllPrediction_DoesNotFilter() {
+        assertEquals(6, dogService.findAllDogs(DogSearchCriteria.of(null, "All"), byName()).getTotalElements());
+    }
+
+    private static PageRequest byName() {
+        return PageRequest.of(0, 10, Sort.by("name"));
+    }
+
+    private static List<String> names(Page<DogDto> page) {
+        return page.getContent().stream().map(DogDto::getName).toList();
+    }
+}
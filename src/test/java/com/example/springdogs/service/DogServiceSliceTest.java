@@ -0,0 +1,144 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.dto.DogSlice;
+import com.example.springdogs.model.SafetyLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static com.example.springdogs.service.TestDogs.dog;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.dogs.counters.max-staleness=300ms")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DogServiceSliceTest {
+
+    private static final long PAST_MAX_STALENESS_MS = 400;
+
+    @Autowired
+    private DogService dogService;
+
+    @Autowired
+    private DogCounters dogCounters;
+
+    @BeforeEach
+    void setUp() {
+        TestDogs.replaceAll(dogService,
+                dog("Buddy", "Golden Retriever", 3, 70.5, SafetyLevel.YES),
+                dog("Luna", "German Shepherd", 5, 85.2, SafetyLevel.CAUTIOUSLY),
+                dog("Max", "Labrador Retriever", 7, 65.0, SafetyLevel.YES),
+                dog("Bella", "Beagle", 2, 25.8, SafetyLevel.YES),
+                dog("Rocky", "Boxer", 4, 75.3, SafetyLevel.NO),
+                dog("Molly", "French Bulldog", 6, 28.4, SafetyLevel.YES));
+        // Count the seeded dogs now rather than after max-staleness
+        dogCounters.refresh();
+    }
+
+    @Test
+    void findDogSlice_MatchesPagedListing() {
+        DogSearchCriteria criteria = DogSearchCriteria.of(null, "Yes");
+        for (int page = 0; page < 3; page++) {
+            PageRequest pageable = PageRequest.of(page, 2, Sort.by("name"));
+            Page<DogDto> expected = dogService.findAllDogs(criteria, pageable);
+
+            DogSlice slice = dogService.findDogSlice(criteria, pageable, false);
+
+            assertEquals(names(expected.getContent()), names(slice.getContent()));
+            assertEquals(expected.hasNext(), slice.isHasNext());
+            assertNull(slice.getApproximateTotal());
+        }
+    }
+
+    @Test
+    void findDogSlice_WithSearch_ReadsOnePastThePage() {
+        DogSearchCriteria criteria = DogSearchCriteria.of("retriever", null);
+
+        int matches = (int) dogService.findAllDogs(criteria, PageRequest.of(0, 1)).getTotalElements();
+
+        DogSlice first = dogService.findDogSlice(criteria, PageRequest.of(0, 1, Sort.by("name")), false);
+        DogSlice last = dogService.findDogSlice(criteria, PageRequest.of(matches - 1, 1, Sort.by("name")), false);
+
+        assertEquals(List.of("Buddy"), names(first.getContent()));
+        assertTrue(first.isHasNext());
+        assertEquals(1, last.getContent().size());
+        assertFalse(last.isHasNext());
+    }
+
+    @Test
+    void findDogSlice_WithTotal_CountsPredictionAndBreed() {
+        DogSearchCriteria all = new DogSearchCriteria();
+        DogSearchCriteria yes = DogSearchCriteria.of(null, "Yes");
+        DogSearchCriteria beagles = new DogSearchCriteria();
+        beagles.setBreed("Beagle");
+
+        assertEquals(6L, total(all));
+        assertEquals(dogService.findAllDogs(yes, PageRequest.of(0, 1)).getTotalElements(), total(yes));
+        assertEquals(1L, total(beagles));
+    }
+
+    @Test
+    void findDogSlice_WithTotalAndAgeRange_HasNoTotal() {
+        DogSearchCriteria criteria = new DogSearchCriteria();
+        criteria.setMaxAge(5);
+
+        assertNull(total(criteria));
+        assertNull(total(DogSearchCriteria.of("retriever", null)));
+    }
+
+    @Test
+    void findDogSlice_WithTotalAfterDeletes_RecountsWithinMaxStaleness() throws InterruptedException {
+        DogSearchCriteria all = new DogSearchCriteria();
+        List<Long> ids = dogService.findAllDogs(all, PageRequest.of(0, 2)).getContent().stream()
+                .map(DogDto::getId)
+                .toList();
+
+        dogService.deleteDog(ids.get(0));
+        Thread.sleep(PAST_MAX_STALENESS_MS);
+        // The first read past max-staleness starts the recount in the background
+        assertEquals(5L, awaitTotal(all, 5L));
+
+        // Read within max-staleness of the last recount, so the total may still count the dog
+        dogService.deleteDog(ids.get(1));
+        Long justAfter = total(all);
+        assertTrue(justAfter == 4L || justAfter == 5L, "Unexpected total " + justAfter);
+
+        Thread.sleep(PAST_MAX_STALENESS_MS);
+        assertEquals(4L, awaitTotal(all, 4L));
+    }
+
+    @Test
+    void findDogSlice_WithUnknownPrediction_ReturnsEmptySlice() {
+        DogSlice slice = dogService.findDogSlice(DogSearchCriteria.of(null, "Maybe"), PageRequest.of(0, 5), true);
+
+        assertTrue(slice.getContent().isEmpty());
+        assertFalse(slice.isHasNext());
+        assertEquals(0L, slice.getApproximateTotal());
+    }
+
+    private Long total(DogSearchCriteria criteria) {
+        return dogService.findDogSlice(criteria, PageRequest.of(0, 1), true).getApproximateTotal();
+    }
+
+    private Long awaitTotal(DogSearchCriteria criteria, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        Long total = total(criteria);
+        while (total != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            total = total(criteria);
+        }
+        return total;
+    }
+
+    private static List<String> names(List<DogDto> dogs) {
+        return dogs.stream().map(DogDto::getName).toList();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.springdogs.service;
+
+import com.example.springdogs.dto.DogDto;
+import com.example.springdogs.dto.DogSearchCriteria;
+import com.example.springdogs.model.SafetyLevel;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gives integration tests their own dogs in place of the sample dogs loaded at startup.
+ */
+final class TestDogs {
+
+    private TestDogs() {
+    }
+
+    /**
+     * Deletes every dog and saves these instead, through the service so the search index and
+     * caches see the changes.
+     */
+    static List<DogDto> replaceAll(DogService dogService, DogDto... dogs) {
+        dogService.findAllDogs(new DogSearchCriteria(), PageRequest.of(0, 1000))
+                .forEach(dog -> dogService.deleteDog(dog.getId()));
+        return Arrays.stream(dogs).map(dogService::saveDog).toList();
+    }
+
+    static DogDto dog(String name, String breed, int age, double weight, SafetyLevel prediction) {
+        return dog(name, breed, age, weight, prediction, "Calm");
+    }
+
+    // The prediction is preset, so saving the dog does not ask OpenAI
+    static DogDto dog(String name, String breed, int age, double weight, SafetyLevel prediction, String temperament) {
+        DogDto dog = new DogDto();
+        dog.setName(name);
+        dog.setBreed(breed);
+        dog.setAge(age);
+        dog.setColor("Brown");
+        dog.setWeight(weight);
+        dog.setTemperament(temperament);
+        dog.setIsSafeToPet(prediction);
+        dog.setSafetyExplanation("Set by the test");
+        return dog;
+    }
+}